@@ -0,0 +1,38 @@
+package benchmarks;
+
+import hlt.Game;
+
+import java.util.HashMap;
+import java.util.List;
+
+// Times reading the engine's frames. It plays a local game to record every frame, then feeds them all again to a
+// second Game and times Game.updateFrame over the lot. Queueing the frames isn't timed.
+//
+// Run as java benchmarks.FrameParseBenchmark [width players turns seed], 64 4 300 4 by default.
+public class FrameParseBenchmark {
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) throws Exception {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int turns = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 4;
+
+        LocalGame local = new LocalGame(width, players, turns, seed);
+        local.start(false, new HashMap<>());
+        while(!local.isOver()) local.playTurn();
+        List<String> frames = local.frames();
+
+        local.send(local.init());
+        Game game = new Game(true, false);
+        System.out.printf("%dx%d, %d players, %d frames%n", width, width, players, frames.size());
+        for(int round = 0; round < ROUNDS; round++) {
+            for(String frame : frames) local.send(frame);
+            long start = System.nanoTime();
+            for(int i = 0; i < frames.size(); i++) game.updateFrame();
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%.1fus per frame%n", nanos / 1e3 / frames.size());
+        }
+        System.exit(0);
+    }
+}
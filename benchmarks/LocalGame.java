@@ -0,0 +1,507 @@
+package benchmarks;
+
+import bots.BaseBot;
+import bots.current_bot.Bot;
+import bots.current_bot.utils.Logger;
+import hlt.Game;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// A cut down Halite engine, so the benchmarks can play our bot through whole games without the real one. Our bot reads
+// frames from stdin and writes commands to stdout just as it does online, and plays against simple greedy miners on a
+// seeded map with clustered halite. The rules are close enough for timing and for checking that a change doesn't
+// alter what we do, but don't read anything into the scores.
+//
+// Run as java benchmarks.LocalGame <width> <players> <turns> <seed> [-v]. It prints our commands for every turn, so two
+// builds can be compared with diff, and a line of timings and final banks to stderr. With -v the bot logs to bot_logs/
+// and flogs/.
+public class LocalGame {
+    private static final int MAX_HALITE = 1000;
+    private static final int SHIP_COST = 1000;
+    private static final int DROPOFF_COST = 4000;
+    // By direction: n, s, e, w, still.
+    private static final int[][] DIRECTIONS = {{0, -1}, {0, 1}, {1, 0}, {-1, 0}, {0, 0}};
+
+    private static class SimShip {
+        final int id;
+        final int owner;
+        int x;
+        int y;
+        int halite;
+
+        SimShip(int id, int owner, int x, int y, int halite) {
+            this.id = id;
+            this.owner = owner;
+            this.x = x;
+            this.y = y;
+            this.halite = halite;
+        }
+    }
+
+    // What the engine has sent and the bot hasn't read yet.
+    private static class Pipe extends InputStream {
+        private byte[] buffer = new byte[1 << 16];
+        private int head = 0;
+        private int tail = 0;
+
+        void push(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.US_ASCII);
+            if(tail + bytes.length > buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length, 2 * (tail - head + bytes.length))];
+                System.arraycopy(buffer, head, grown, 0, tail - head);
+                tail -= head;
+                head = 0;
+                buffer = grown;
+            }
+            System.arraycopy(bytes, 0, buffer, tail, bytes.length);
+            tail += bytes.length;
+        }
+
+        @Override
+        public int read() {
+            return head == tail ? -1 : buffer[head++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if(head == tail) return -1;
+            int n = Math.min(len, tail - head);
+            System.arraycopy(buffer, head, b, off, n);
+            head += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return tail - head;
+        }
+    }
+
+    public final int width;
+    public final int players;
+    public final int turns;
+    private final Random random;
+    private final int me = 0;
+    private final int[][] halite;
+    private final int[][] structureOwner;
+    private final int[] bank;
+    private final int[] shipyardX;
+    private final int[] shipyardY;
+    private List<SimShip> ships = new ArrayList<>();
+    // id, owner, x, y
+    private final List<int[]> dropoffs = new ArrayList<>();
+    private final List<int[]> changedSquares = new ArrayList<>();
+    private int nextShipId = 0;
+    private int nextDropoffId = 0;
+
+    private final Pipe stdin = new Pipe();
+    private final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+    private String init;
+    private final List<String> frames = new ArrayList<>();
+    private Game game;
+    private BaseBot bot;
+    private int turn = 0;
+    private long totalNanos = 0;
+    private long worstNanos = 0;
+
+    public LocalGame(int width, int players, int turns, long seed) {
+        this.width = width;
+        this.players = players;
+        this.turns = turns;
+        random = new Random(seed);
+        halite = new int[width][width];
+        structureOwner = new int[width][width];
+        for(int[] row : structureOwner) Arrays.fill(row, -1);
+
+        // Piles of halite, falling off with distance from their centre, on top of a little noise.
+        double[][] field = new double[width][width];
+        for(int k = 0; k < width * width / 40; k++) {
+            int cx = random.nextInt(width);
+            int cy = random.nextInt(width);
+            double amount = 200 + random.nextInt(800);
+            int radius = 2 + random.nextInt(5);
+            for(int dx = -radius; dx <= radius; dx++) {
+                for(int dy = -radius; dy <= radius; dy++) {
+                    int d = Math.abs(dx) + Math.abs(dy);
+                    if(d > radius) continue;
+                    field[wrap(cx + dx)][wrap(cy + dy)] += amount * (1.0 - (double) d / (radius + 1));
+                }
+            }
+        }
+        for(int x = 0; x < width; x++) {
+            for(int y = 0; y < width; y++) {
+                halite[x][y] = (int) Math.min(MAX_HALITE, field[x][y] + random.nextInt(60));
+            }
+        }
+
+        bank = new int[players];
+        shipyardX = new int[players];
+        shipyardY = new int[players];
+        int q = width / 4;
+        int[][] corners = players == 2
+                ? new int[][]{{q, width / 2}, {width - q - 1, width / 2}}
+                : new int[][]{{q, q}, {width - q - 1, q}, {q, width - q - 1}, {width - q - 1, width - q - 1}};
+        for(int p = 0; p < players; p++) {
+            bank[p] = 5000;
+            shipyardX[p] = corners[p][0];
+            shipyardY[p] = corners[p][1];
+            structureOwner[shipyardX[p]][shipyardY[p]] = p;
+            halite[shipyardX[p]][shipyardY[p]] = 0;
+        }
+    }
+
+    // Sends the bot the initial message and sets it up. Our bot is player 0. Bot logs need bot_logs/ and flogs/ in the
+    // working directory.
+    public Game start(boolean verbose, Map<String, String> configOverrides) throws Exception {
+        if(verbose) {
+            new File("bot_logs").mkdirs();
+            new File("flogs").mkdirs();
+        }
+        Logger.level = verbose ? Logger.INFO : Logger.NONE;
+        Logger.log_time = verbose;
+        System.setIn(stdin);
+        init = initMessage();
+        stdin.push(init);
+        game = new Game(true, verbose);
+        captureStdout(() -> game.ready("CurrentBot"));
+        stdout.reset();
+        bot = new Bot(game, configOverrides);
+        return game;
+    }
+
+    // Plays one turn: sends the frame, lets our bot move and then moves everyone. Returns our commands.
+    public String playTurn() throws Exception {
+        turn++;
+        String frame = frame();
+        frames.add(frame);
+        stdin.push(frame);
+        long start = System.nanoTime();
+        captureStdout(() -> bot.run_turn(game, true));
+        long nanos = System.nanoTime() - start;
+        totalNanos += nanos;
+        worstNanos = Math.max(worstNanos, nanos);
+        String commands = stdout.toString().trim();
+        stdout.reset();
+        step(commands);
+        return commands;
+    }
+
+    public boolean isOver() {
+        return turn >= turns;
+    }
+
+    public int turn() {
+        return turn;
+    }
+
+    // The initial message, and every frame sent so far in order, for replaying the game.
+    public String init() {
+        return init;
+    }
+
+    public List<String> frames() {
+        return frames;
+    }
+
+    // Queues a message on the bot's stdin. The bot's Input only ever reads from the stdin it first saw, so this is how
+    // to send it anything more once the game is over.
+    public void send(String message) {
+        stdin.push(message);
+    }
+
+    public String summary() {
+        return String.format("W=%d P=%d T=%d total=%.1fms mean=%.2fms worst=%.2fms bank=%s ships=%d",
+                width, players, turn, totalNanos / 1e6, totalNanos / 1e6 / turn, worstNanos / 1e6,
+                Arrays.toString(bank), ships.size());
+    }
+
+    private String initMessage() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"NEW_ENTITY_ENERGY_COST\":1000,\"DROPOFF_COST\":4000,\"MAX_ENERGY\":1000,\"MAX_TURNS\":").append(turns)
+                .append(",\"EXTRACT_RATIO\":4,\"MOVE_COST_RATIO\":10,\"INSPIRATION_ENABLED\":true,\"INSPIRATION_RADIUS\":4,")
+                .append("\"INSPIRATION_SHIP_COUNT\":2,\"INSPIRED_EXTRACT_RATIO\":4,\"INSPIRED_BONUS_MULTIPLIER\":2.0,")
+                .append("\"INSPIRED_MOVE_COST_RATIO\":10}\n");
+        sb.append(players).append(' ').append(me).append('\n');
+        for(int p = 0; p < players; p++) {
+            sb.append(p).append(' ').append(shipyardX[p]).append(' ').append(shipyardY[p]).append('\n');
+        }
+        sb.append(width).append(' ').append(width).append('\n');
+        for(int y = 0; y < width; y++) {
+            for(int x = 0; x < width; x++) {
+                if(x > 0) sb.append(' ');
+                sb.append(halite[x][y]);
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private void captureStdout(Action action) throws Exception {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(stdout, true));
+        try {
+            action.run();
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private String frame() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(turn).append('\n');
+        for(int p = 0; p < players; p++) {
+            List<SimShip> playerShips = new ArrayList<>();
+            for(SimShip s : ships) if(s.owner == p) playerShips.add(s);
+            List<int[]> playerDropoffs = new ArrayList<>();
+            for(int[] d : dropoffs) if(d[1] == p) playerDropoffs.add(d);
+            sb.append(p).append(' ').append(playerShips.size()).append(' ').append(playerDropoffs.size()).append(' ')
+                    .append(bank[p]).append('\n');
+            for(SimShip s : playerShips) {
+                sb.append(s.id).append(' ').append(s.x).append(' ').append(s.y).append(' ').append(s.halite).append('\n');
+            }
+            for(int[] d : playerDropoffs) {
+                sb.append(d[0]).append(' ').append(d[2]).append(' ').append(d[3]).append('\n');
+            }
+        }
+        sb.append(changedSquares.size()).append('\n');
+        for(int[] c : changedSquares) {
+            sb.append(c[0]).append(' ').append(c[1]).append(' ').append(halite[c[0]][c[1]]).append('\n');
+        }
+        changedSquares.clear();
+        return sb.toString();
+    }
+
+    private int wrap(int a) {
+        return (a + width) % width;
+    }
+
+    private int distance(int x1, int y1, int x2, int y2) {
+        int dx = Math.abs(x1 - x2);
+        int dy = Math.abs(y1 - y2);
+        return Math.min(dx, width - dx) + Math.min(dy, width - dy);
+    }
+
+    private static int direction(char c) {
+        switch(c) {
+            case 'n': return 0;
+            case 's': return 1;
+            case 'e': return 2;
+            case 'w': return 3;
+            default: return 4;
+        }
+    }
+
+    private boolean inspired(SimShip ship) {
+        int enemies = 0;
+        for(SimShip other : ships) {
+            if(other.owner != ship.owner && distance(other.x, other.y, ship.x, ship.y) <= 4) enemies++;
+        }
+        return enemies >= 2;
+    }
+
+    // The opponents mine greedily, head home when full or when the game is ending, and build one dropoff a third of
+    // the map away from their shipyard.
+    private boolean opponentCommands(int p, Map<Integer, Integer> moves, Set<Integer> builds) {
+        Set<Long> claimed = new HashSet<>();
+        for(SimShip s : ships) {
+            if(s.owner != p) continue;
+            int cost = halite[s.x][s.y] / 10;
+            int d = 4;
+            if(s.halite >= cost) {
+                boolean canBuild = s.halite + halite[s.x][s.y] + bank[p] >= DROPOFF_COST && structureOwner[s.x][s.y] < 0
+                        && distance(s.x, s.y, shipyardX[p], shipyardY[p]) >= width / 3 && countDropoffs(p) == 0
+                        && turn > turns / 4;
+                if(canBuild) {
+                    builds.add(s.id);
+                    bank[p] -= Math.max(0, DROPOFF_COST - s.halite - halite[s.x][s.y]);
+                    continue;
+                }
+                if(s.halite > 700 || turn > turns - distance(s.x, s.y, shipyardX[p], shipyardY[p]) - 5) {
+                    int[] home = nearestStructure(p, s.x, s.y);
+                    d = towards(s.x, s.y, home[0], home[1]);
+                }
+                else if(halite[s.x][s.y] < 80) {
+                    int best = -1;
+                    int bestValue = -1;
+                    for(int k = 0; k < 4; k++) {
+                        int value = halite[wrap(s.x + DIRECTIONS[k][0])][wrap(s.y + DIRECTIONS[k][1])]
+                                + random.nextInt(40);
+                        if(value > bestValue) {
+                            bestValue = value;
+                            best = k;
+                        }
+                    }
+                    d = best;
+                }
+            }
+            long key = wrap(s.x + DIRECTIONS[d][0]) * 1000L + wrap(s.y + DIRECTIONS[d][1]);
+            if(claimed.contains(key) && d != 4) {
+                d = 4;
+                key = s.x * 1000L + s.y;
+            }
+            claimed.add(key);
+            moves.put(s.id, d);
+        }
+        return bank[p] >= SHIP_COST && turn < turns * 0.6 && !claimed.contains(shipyardX[p] * 1000L + shipyardY[p]);
+    }
+
+    private int countDropoffs(int p) {
+        int count = 0;
+        for(int[] d : dropoffs) if(d[1] == p) count++;
+        return count;
+    }
+
+    private int[] nearestStructure(int p, int x, int y) {
+        int[] best = {shipyardX[p], shipyardY[p]};
+        int bestDistance = distance(x, y, shipyardX[p], shipyardY[p]);
+        for(int[] d : dropoffs) {
+            if(d[1] == p && distance(x, y, d[2], d[3]) < bestDistance) {
+                bestDistance = distance(x, y, d[2], d[3]);
+                best = new int[]{d[2], d[3]};
+            }
+        }
+        return best;
+    }
+
+    private int towards(int x, int y, int targetX, int targetY) {
+        int best = 4;
+        int bestDistance = distance(x, y, targetX, targetY);
+        for(int k = 0; k < 4; k++) {
+            int d = distance(wrap(x + DIRECTIONS[k][0]), wrap(y + DIRECTIONS[k][1]), targetX, targetY);
+            if(d < bestDistance) {
+                bestDistance = d;
+                best = k;
+            }
+        }
+        return best;
+    }
+
+    private void changed(int x, int y) {
+        changedSquares.add(new int[]{x, y});
+    }
+
+    private void step(String ourCommands) {
+        Map<Integer, Integer> moves = new HashMap<>();
+        Set<Integer> builds = new HashSet<>();
+        boolean[] spawns = new boolean[players];
+        String[] tokens = ourCommands.isEmpty() ? new String[0] : ourCommands.split(" +");
+        for(int i = 0; i < tokens.length; ) {
+            if(tokens[i].equals("g")) {
+                if(bank[me] >= SHIP_COST) spawns[me] = true;
+                i++;
+            }
+            else if(tokens[i].equals("m")) {
+                moves.put(Integer.parseInt(tokens[i + 1]), direction(tokens[i + 2].charAt(0)));
+                i += 3;
+            }
+            else if(tokens[i].equals("c")) {
+                int id = Integer.parseInt(tokens[i + 1]);
+                for(SimShip s : ships) {
+                    if(s.id != id) continue;
+                    int needed = DROPOFF_COST - s.halite - halite[s.x][s.y];
+                    if(bank[me] >= needed && structureOwner[s.x][s.y] < 0) {
+                        builds.add(id);
+                        bank[me] -= Math.max(0, needed);
+                    }
+                }
+                i += 2;
+            }
+            else throw new IllegalStateException("Bad command " + ourCommands);
+        }
+        for(int p = 0; p < players; p++) {
+            if(p != me) spawns[p] = opponentCommands(p, moves, builds);
+        }
+
+        // Dropoffs.
+        List<SimShip> remaining = new ArrayList<>();
+        for(SimShip s : ships) {
+            if(builds.contains(s.id)) {
+                dropoffs.add(new int[]{nextDropoffId++, s.owner, s.x, s.y});
+                structureOwner[s.x][s.y] = s.owner;
+                bank[s.owner] += Math.max(0, s.halite + halite[s.x][s.y] - DROPOFF_COST);
+                halite[s.x][s.y] = 0;
+                changed(s.x, s.y);
+            }
+            else remaining.add(s);
+        }
+        ships = remaining;
+
+        // Moving and mining.
+        for(SimShip s : ships) {
+            Integer d = moves.get(s.id);
+            int cost = halite[s.x][s.y] / 10;
+            if(d != null && d != 4 && s.halite >= cost) {
+                s.halite -= cost;
+                s.x = wrap(s.x + DIRECTIONS[d][0]);
+                s.y = wrap(s.y + DIRECTIONS[d][1]);
+            }
+            else {
+                int mined = Math.min((halite[s.x][s.y] + 3) / 4, MAX_HALITE - s.halite);
+                int bonus = inspired(s) ? mined * 2 : 0;
+                if(mined > 0) {
+                    halite[s.x][s.y] -= mined;
+                    changed(s.x, s.y);
+                }
+                s.halite = Math.min(MAX_HALITE, s.halite + mined + bonus);
+            }
+        }
+
+        for(int p = 0; p < players; p++) {
+            if(spawns[p]) {
+                bank[p] -= SHIP_COST;
+                ships.add(new SimShip(nextShipId++, p, shipyardX[p], shipyardY[p], 0));
+            }
+        }
+
+        // Collisions. Everything involved is destroyed, and its halite dropped on the square.
+        Map<Long, Integer> shipsAt = new HashMap<>();
+        for(SimShip s : ships) shipsAt.merge(s.x * 1000L + s.y, 1, Integer::sum);
+        List<SimShip> survivors = new ArrayList<>();
+        for(SimShip s : ships) {
+            if(shipsAt.get(s.x * 1000L + s.y) > 1) {
+                if(structureOwner[s.x][s.y] >= 0) bank[structureOwner[s.x][s.y]] += s.halite;
+                else {
+                    halite[s.x][s.y] += s.halite;
+                    changed(s.x, s.y);
+                }
+            }
+            else survivors.add(s);
+        }
+        ships = survivors;
+
+        for(SimShip s : ships) {
+            if(structureOwner[s.x][s.y] == s.owner) {
+                bank[s.owner] += s.halite;
+                s.halite = 0;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int width = Integer.parseInt(args[0]);
+        int players = Integer.parseInt(args[1]);
+        int turns = Integer.parseInt(args[2]);
+        long seed = Long.parseLong(args[3]);
+        boolean verbose = args.length > 4 && args[4].equals("-v");
+
+        LocalGame local = new LocalGame(width, players, turns, seed);
+        local.start(verbose, new HashMap<>());
+        StringBuilder transcript = new StringBuilder();
+        while(!local.isOver()) {
+            String commands = local.playTurn();
+            transcript.append(local.turn()).append(": ").append(commands).append('\n');
+        }
+        System.out.print(transcript);
+        System.err.println(local.summary() + " seed=" + seed);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import bots.current_bot.dropoffs.DropoffPlan;
+import bots.current_bot.mining.MiningScoresFromPosition;
+import bots.current_bot.navigation.MapStatsKeeper;
+import bots.current_bot.utils.BotConstants;
+import hlt.Game;
+import hlt.Ship;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+// Times MiningScoresFromPosition, the search out from a ship and the scoring of every square it reaches, on the
+// positions of a real game. It plays a local game up to a turn, then scores each of our ships there again and again
+// with an iteration budget big enough to search the whole map.
+//
+// Run as java benchmarks.MiningScoreBenchmark [width players turn seed], 64 4 150 4 by default.
+public class MiningScoreBenchmark {
+    private static final int ITERATIONS = 1000000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) throws Exception {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int turn = args.length > 2 ? Integer.parseInt(args[2]) : 150;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 4;
+
+        LocalGame local = new LocalGame(width, players, 300, seed);
+        Game game = local.start(false, new HashMap<>());
+        while(local.turn() < turn) local.playTurn();
+
+        List<Ship> ships = new ArrayList<>(game.me.ships.values());
+        double[][] returnTurns = new double[game.map.height][game.map.width];
+        for(int x = 0; x < game.map.height; x++) {
+            for(int y = 0; y < game.map.width; y++) {
+                int distance = MapStatsKeeper.nearestDropoffDistance(
+                        game.map.cells[x][y].position, game.me, game, Optional.<DropoffPlan>empty());
+                returnTurns[x][y] = distance * BotConstants.get().DROPOFF_DISTANCE_PENALTY();
+            }
+        }
+
+        System.out.printf("%dx%d, %d players, turn %d: %d ships%n", width, width, players, turn, ships.size());
+        for(int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long iterations = 0;
+            long start = System.nanoTime();
+            for(Ship ship : ships) {
+                iterations += new MiningScoresFromPosition(game, returnTurns, ship, ITERATIONS).invoke()
+                        .getShipIterations();
+            }
+            long nanos = System.nanoTime() - start;
+            if(round >= WARMUP_ROUNDS) {
+                System.out.printf("%.1fus per ship, %d iterations%n", nanos / 1e3 / ships.size(), iterations);
+            }
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,91 @@
+package benchmarks;
+
+import bots.current_bot.utils.Neighbourhood;
+import hlt.GameMap;
+import hlt.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Compares going through the squares near every square on the map with a Neighbourhood table against building the
+// list each time, the way CommonFunctions.getNeighbourhood used to. It first checks both give the same squares in the
+// same order, then times a sweep over the whole map, summing over each square's neighbourhood.
+//
+// Run as java benchmarks.NeighbourhoodBenchmark [width], 64 by default.
+public class NeighbourhoodBenchmark {
+    private static final int[] RADII = {1, 2, 4};
+    private static final int SWEEPS = 50;
+    private static final int ROUNDS = 5;
+
+    // What getNeighbourhood did before Neighbourhood replaced it.
+    private static List<Position> neighbourhoodList(GameMap map, Position position, int distance) {
+        List<Position> neighbourhood = new ArrayList<>();
+        for(int sum=0; sum<=distance; sum++) {
+            for(int x=-sum; x<=sum; x++) {
+                int y = sum - Math.abs(x);
+                neighbourhood.add(position.withVectorOffset(map, x, y));
+                if(y != 0) {
+                    neighbourhood.add(position.withVectorOffset(map, x, -y));
+                }
+            }
+        }
+        return neighbourhood;
+    }
+
+    private static long sweepList(GameMap map, int radius) {
+        long sum = 0;
+        for(int x = 0; x < map.height; x++) {
+            for(int y = 0; y < map.width; y++) {
+                for(Position p : neighbourhoodList(map, Position.getPosition(x, y), radius)) sum += p.x;
+            }
+        }
+        return sum;
+    }
+
+    private static long sweepTable(GameMap map, int radius) {
+        long sum = 0;
+        for(int x = 0; x < map.height; x++) {
+            for(int y = 0; y < map.width; y++) {
+                Position position = Position.getPosition(x, y);
+                Neighbourhood neighbourhood = Neighbourhood.of(map, radius);
+                for(int i = 0; i < neighbourhood.size(); i++) sum += neighbourhood.position(position, i).x;
+            }
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        GameMap map = new GameMap(width, width);
+
+        for(int radius : RADII) {
+            Neighbourhood neighbourhood = Neighbourhood.of(map, radius);
+            for(int x = 0; x < map.height; x++) {
+                for(int y = 0; y < map.width; y++) {
+                    Position position = Position.getPosition(x, y);
+                    List<Position> list = neighbourhoodList(map, position, radius);
+                    if(list.size() != neighbourhood.size()) throw new IllegalStateException("Sizes differ");
+                    for(int i = 0; i < list.size(); i++) {
+                        if(list.get(i) != neighbourhood.position(position, i)) {
+                            throw new IllegalStateException(String.format(
+                                    "Square %d around %s differs at radius %d", i, position, radius));
+                        }
+                    }
+                }
+            }
+
+            for(int round = 0; round < ROUNDS; round++) {
+                long listSum = 0;
+                long tableSum = 0;
+                long start = System.nanoTime();
+                for(int sweep = 0; sweep < SWEEPS; sweep++) listSum += sweepList(map, radius);
+                long middle = System.nanoTime();
+                for(int sweep = 0; sweep < SWEEPS; sweep++) tableSum += sweepTable(map, radius);
+                long end = System.nanoTime();
+                if(listSum != tableSum) throw new IllegalStateException("Sums differ");
+                System.out.printf("radius %d: list %.3fms, table %.3fms per sweep%n",
+                        radius, (middle - start) / 1e6 / SWEEPS, (end - middle) / 1e6 / SWEEPS);
+            }
+        }
+    }
+}
@@ -12,6 +12,7 @@ import bots.current_bot.utils.BotConstants;
 import bots.current_bot.utils.CommonFunctions;
 import bots.current_bot.utils.Logger;
 import bots.current_bot.utils.MoveRegister;
+import bots.current_bot.utils.TurnScheduler;
 import hlt.*;
 
 import java.util.*;
@@ -38,6 +39,12 @@ public class Bot extends BaseBot {
     protected ArrayList<Command> getCommands(Game game, boolean runningLocally) throws Exception {
         Logger.startTime = System.currentTimeMillis();
 
+        // Online, every phase of the turn gets a slice of time. Locally we run on a fixed iteration budget instead, for
+        // speed and repeatability.
+        Optional<Integer> iterationBudget = runningLocally && (BotConstants.get().USE_TOTAL_ITERATIONS() > 0) ? Optional.of(BotConstants.get().ITERATIONS_ALLOWED()) : Optional.empty();
+        TurnScheduler scheduler = new TurnScheduler(!iterationBudget.isPresent());
+        scheduler.start(TurnScheduler.Phase.MAP_STATS);
+
         // Calculate some information that will be used throughout the turn.
         MapStatsKeeper.updateMaps(game);
 
@@ -54,19 +61,17 @@ public class Bot extends BaseBot {
         }
         halite_per_turn.add(turn_halite);
         ships_per_turn.add(turn_ships);
-        Logger.logtime("Calculated map stats");
-        Logger.info(String.format("Ships %d, halite %d", turn_ships, turn_halite));
+        Logger.info("Ships %d, halite %d", turn_ships, turn_halite);
 
         // Create the moveRegister, which tracks moves and avoids collisions.
         MoveRegister moveRegister = new MoveRegister(game.me.ships.values(), game, !rushingShipIds.isEmpty());
+        scheduler.start(TurnScheduler.Phase.EARLY_MOVES);
 
         // Build any dropoffs on super-high halite squares our turtles happen to be on.
         int haliteForExceptionalDropoffs = Dropoffs.getExceptionalDropoffs(game, moveRegister);
-        Logger.logtime("Calculated exceptional dropoff moves");
 
         // Stay still if you need to.
         Set<EntityId> forcedStayIds = CommonFunctions.getForcedStills(map, moveRegister);
-        Logger.logtime("Calculated forced stay moves");
 
         // From here, scared ships will take their last legal move.
         moveRegister.startTrackingLegalMoves();
@@ -75,15 +80,17 @@ public class Bot extends BaseBot {
         Map<Integer, List<Double>> expectedHaliteTimes = Returning.fixReturningShips(
                 game, moveRegister.getRemainingShips(), returningShipIds, rushingShipIds, guardShips,
                 dropoffPlan);
-        Logger.logtime("Calculated first wave of returners");
 
-        // Get the planned dropoff site (if any).
-        dropoffPlan = Dropoffs.getDropoffPlan(game, dropoffPlan, expectedHaliteTimes, haliteForExceptionalDropoffs);
-        Logger.logtime("Calculated dropoff moves");
+        // Get the planned dropoff site (if any). If we're running late, we stick with last turn's plan.
+        if(scheduler.startOptional(TurnScheduler.Phase.DROPOFF_PLAN, moveRegister)) {
+            dropoffPlan = Dropoffs.getDropoffPlan(game, dropoffPlan, expectedHaliteTimes, haliteForExceptionalDropoffs);
+        }
 
-        // Budget time for mining evaluation (or iterations if running locally, for speed and repeatability).
-        int localScoresTimeBudget = BotConstants.get().MINING_SCORE_TIME();
-        Optional<Integer> iterationBudget = runningLocally && (BotConstants.get().USE_TOTAL_ITERATIONS() > 0) ? Optional.of(BotConstants.get().ITERATIONS_ALLOWED()) : Optional.empty();
+        // Budget time for mining evaluation. Ships get what's left of the phase after the dropoff scores, up to
+        // MINING_SCORE_TIME.
+        scheduler.start(TurnScheduler.Phase.MINING_SCORES);
+        int localScoresTimeBudget = Math.max(0, Math.min(BotConstants.get().MINING_SCORE_TIME(),
+                scheduler.millisecondsLeft() - BotConstants.get().DROPOFF_SCORE_TIME()));
 
         // This is the most important bit. All remaining ships score all squares on the map to decide where to mine.
         MiningFunctions.getMiningScores(
@@ -92,12 +99,11 @@ public class Bot extends BaseBot {
                 localScoresTimeBudget,
                 iterationBudget,
                 dropoffPlan, moveRegister);
-        Logger.logtime("Calculated miner scores");
 
         // Recalculate returning ships. Some ships with disappointing mining scores might choose to return.
+        scheduler.start(TurnScheduler.Phase.RETURNING);
         Returning.fixReturningShips(
                 game, moveRegister.getRemainingShips(), returningShipIds, rushingShipIds, guardShips, dropoffPlan);
-        Logger.logtime("Calculated all returners");
 
         // Get moves for ships returning to dropoffs.
         Returning.getReturningMoves(
@@ -111,14 +117,17 @@ public class Bot extends BaseBot {
         }
 
         // In 2 player only, get some moves where several turtles rush towards very big piles of halite.
-        if(game.players.size() == 2) {
+        if(game.players.size() == 2 && scheduler.startOptional(TurnScheduler.Phase.EXCEPTIONAL_SQUARES, moveRegister)) {
             ExceptionalSquareHandler.getExceptionalSquaresMoves(game, moveRegister, turn_halite, returningShipIds);
         }
 
         // Get moves to trap enemy ships for beneficial collisions.
-        Hunting.getHuntingMoves(game, moveRegister, returningShipIds);
+        if(scheduler.startOptional(TurnScheduler.Phase.HUNTING, moveRegister)) {
+            Hunting.getHuntingMoves(game, moveRegister, returningShipIds);
+        }
 
         // Get moves for endgame protection of dropoffs.
+        scheduler.start(TurnScheduler.Phase.GUARDING);
         Guarding.getGuardingMoves(
                 game, moveRegister, guardShips);
 
@@ -128,17 +137,16 @@ public class Bot extends BaseBot {
             illegalPositions.add(dropoffPlan.get().destination);
         }
         // Get moves for miners.
-        MiningFunctions.getMiningCommands(game, moveRegister, illegalPositions, forcedStayIds, dropoffPlan);
-        Logger.logtime("Calculated miner moves");
+        scheduler.start(TurnScheduler.Phase.MINING_CLAIMS);
+        MiningFunctions.getMiningCommands(game, moveRegister, illegalPositions, forcedStayIds, dropoffPlan, scheduler.deadline());
 
         // Any ship which hasn't moved moves somewhere.
+        scheduler.start(TurnScheduler.Phase.FINISHING);
         AnyMoves.getMoveCommands(game, moveRegister);
+        scheduler.finish(moveRegister);
+        MapStatsKeeper.logLayerTimes();
 
         // Finalise turn commands. This fixes our collisions.
-        ArrayList<Command> commands = moveRegister.getCommands();
-
-        Logger.logtime("Finished getting commands");
-
-        return commands;
+        return moveRegister.getCommands();
     }
 }
@@ -6,6 +6,7 @@ import bots.current_bot.navigation.Navigation;
 import bots.current_bot.utils.BotConstants;
 import bots.current_bot.utils.CommonFunctions;
 import bots.current_bot.utils.Logger;
+import bots.current_bot.utils.Neighbourhood;
 import bots.current_bot.utils.MoveRegister;
 import hlt.*;
 
@@ -29,12 +30,12 @@ final class FillState {
 public class ExceptionalSquareHandler {
     public static void getExceptionalSquaresMoves(Game game, MoveRegister moveRegister, int haliteSum, Set<EntityId> returningShips) {
         double haliteThreshold = BotConstants.get().EXCEPTIONAL_SQUARE_PROPORTION() * haliteSum / (game.map.width*game.map.height);
-        Logger.info(String.format("Halite threshold %f", haliteThreshold));
+        Logger.info("Halite threshold %f", haliteThreshold);
         for(int x=0; x < game.map.height; x++) {
             for(int y=0; y<game.map.width; y++) {
                 // Look for squares with high halite and a nearby enemy.
                 if(game.map.cells[x][y].halite > haliteThreshold && MapStatsKeeper.nearestEnemy(game, x, y) < BotConstants.get().EXCEPTIONAL_ENEMY_DISTANCE()) {
-                    Logger.info(String.format("(%d, %d) is an exceptional square!", x, y));
+                    if(Logger.enabled(Logger.INFO)) Logger.info("(%d, %d) is an exceptional square!", x, y);
                 }
                 else continue;
 
@@ -63,12 +64,16 @@ public class ExceptionalSquareHandler {
                         // Check if there's a ship satisfying the state
                         Ship ship = game.map.at(state.position).ship;
                         if(ship != null && ship.halite >= state.haliteNeeded ) {
-                            Logger.info(String.format("Ship %s can reach the square in %d turns", ship, turns));
+                            if(Logger.enabled(Logger.INFO)) {
+                                Logger.info("Ship %s can reach the square in %d turns", ship, turns);
+                            }
                             if(ship.owner.equals(game.myId) && !returningShips.contains(ship.id)) ourNextShips.add(ship);
                             else if(ship.halite < BotConstants.get().ASSUMED_RETURNING_HALITE()) theirNextShips.add(ship);
                         }
                         // Add nearby states
-                        for(Position nbr : CommonFunctions.getNeighbourhood(game.map, state.position, 1)) {
+                        Neighbourhood around = Neighbourhood.of(game.map, 1);
+                        for(int n=0; n<around.size(); n++) {
+                            Position nbr = around.position(state.position, n);
                             if(foundPositions.contains(nbr)) continue;
                             int halite = state.haliteNeeded + CommonFunctions.moveCost(game.map.at(nbr).halite);
                             if(halite < minHalitePerPosition.getOrDefault(nbr, 10000)) {
@@ -91,7 +96,7 @@ public class ExceptionalSquareHandler {
                     turns++;
                 }
 
-                Logger.info(String.format("Our ships %d, their ships %d", ourShips.size(), theirShips.size()));
+                Logger.info("Our ships %d, their ships %d", ourShips.size(), theirShips.size());
                 if(won) {
                     // We can win this fight - we commit as many ships as we need to to do it.
                     Logger.info("We win.");
@@ -105,10 +110,14 @@ public class ExceptionalSquareHandler {
                     for(Ship ship : ourShips) {
                         if(!remaining.contains(ship)) continue;
 
-                        Logger.info(String.format("Ship %s navigating towards exceptional square", ship));
+                        if(Logger.enabled(Logger.INFO)) {
+                            Logger.info("Ship %s navigating towards exceptional square", ship);
+                        }
                         Optional<Direction> dir = Navigation.navigateLowHaliteDefaultSafety(
                                 game, ship, exceptionalPos, moveRegister.getOccupiedPositions());
-                        Logger.info(String.format("No direction - distance %d", game.map.calculateDistance(ship.position, exceptionalPos) ));
+                        if(Logger.enabled(Logger.INFO)) {
+                            Logger.info("No direction - distance %d", game.map.calculateDistance(ship.position, exceptionalPos) );
+                        }
                         if(!dir.isPresent() && game.map.calculateDistance(ship.position, exceptionalPos) <= 1) {
                             Logger.info("No direction - trying unsafe");
                             dir = Navigation.navigateUnsafe(game, ship, exceptionalPos, moveRegister.getOccupiedPositions(), new LowHaliteTiebreaker());
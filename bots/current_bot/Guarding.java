@@ -4,6 +4,7 @@ import bots.current_bot.navigation.LowHaliteTiebreaker;
 import bots.current_bot.navigation.Navigation;
 import bots.current_bot.utils.CommonFunctions;
 import bots.current_bot.utils.Logger;
+import bots.current_bot.utils.Neighbourhood;
 import bots.current_bot.utils.MoveRegister;
 import hlt.*;
 
@@ -19,18 +20,18 @@ public class Guarding {
         for(EntityId id : guardShips.keySet()) {
             Optional<Ship> maybeShip = moveRegister.getRemainingShips().stream().filter(s -> s.id.equals(id)).findAny();
             if(!maybeShip.isPresent()) {
-                Logger.info(String.format("And now Ship %s's watch is ended.", id));
+                if(Logger.enabled(Logger.INFO)) Logger.info("And now Ship %s's watch is ended.", id);
                 continue;
             }
             Ship ship = maybeShip.get();
-            Logger.info(String.format("Looking for guard move for %s", ship));
+            if(Logger.enabled(Logger.INFO)) Logger.info("Looking for guard move for %s", ship);
 
             Position dropoff = guardShips.get(id);
 
             if(game.turnsRemaining() == 0) {
                 Logger.info("Last turn! Better go in");
                 if (game.map.calculateDistance(ship.position, dropoff) <= 1) {
-                    Logger.info(String.format("Going into dropoff"));
+                    Logger.info("Going into dropoff");
 
                     Direction d = game.map.getUnsafeMoves(ship.position, dropoff).get(0);
                     moveRegister.registerMove(ship, d);
@@ -42,7 +43,9 @@ public class Guarding {
             // If there's an enemy within 2 of the dropoff, kill it.
             int nearestEnemyDistance = 10;
             Direction nearestEnemyDirection = null;
-            for(Position p : CommonFunctions.getNeighbourhood(game.map, dropoff, 2)) {
+            Neighbourhood nearDropoff = Neighbourhood.of(game.map, 2);
+            for(int n=0; n<nearDropoff.size(); n++) {
+                Position p = nearDropoff.position(dropoff, n);
                 if(CommonFunctions.hasEnemyShip(game, p)) {
                     Optional<Direction> d = Navigation.navigateUnsafe(game, ship, p, moveRegister.getOccupiedPositions(), new LowHaliteTiebreaker());
                     if(d.isPresent() && game.map.calculateDistance(p, ship.position) < nearestEnemyDistance) {
@@ -52,7 +55,7 @@ public class Guarding {
                 }
             }
             if(nearestEnemyDirection != null) {
-                Logger.info(String.format("Chasing enemy"));
+                Logger.info("Chasing enemy");
 
                 moveRegister.registerMove(ship, nearestEnemyDirection);
                 continue;
@@ -62,7 +65,9 @@ public class Guarding {
             // no ships moving to it. This includes staying still.
             int nearestDistance = 10;
             Direction bestDirection = null;
-            for(Position p : CommonFunctions.getNeighbourhood(game.map, dropoff, 1)) {
+            Neighbourhood adjacent = Neighbourhood.of(game.map, 1);
+            for(int n=0; n<adjacent.size(); n++) {
+                Position p = adjacent.position(dropoff, n);
                 if(p.equals(dropoff)) continue;
                 Optional<Direction> d = Navigation.navigateUnsafe(game, ship, p, moveRegister.getOccupiedPositions(), new LowHaliteTiebreaker());
                 if(d.isPresent()) {
@@ -75,7 +80,7 @@ public class Guarding {
                 }
             }
             if(bestDirection != null) {
-                Logger.info(String.format("Moving towards adjacent"));
+                Logger.info("Moving towards adjacent");
 
                 moveRegister.registerMove(ship, bestDirection);
                 continue;
@@ -83,7 +88,7 @@ public class Guarding {
 
             // Move to the dropoff.
             if(game.map.calculateDistance(ship.position, dropoff) == 1) {
-                Logger.info(String.format("Moving towards dropoff"));
+                Logger.info("Moving towards dropoff");
 
                 Direction d = game.map.getUnsafeMoves(ship.position, dropoff).get(0);
                 moveRegister.registerMove(ship, d);
@@ -91,7 +96,9 @@ public class Guarding {
                 return;
             }
 
-            Logger.info(String.format("Did not find a move for guard %s! Worth checking whether they messed things up", ship));
+            if(Logger.enabled(Logger.INFO)) {
+                Logger.info("Did not find a move for guard %s! Worth checking whether they messed things up", ship);
+            }
         }
     }
 }
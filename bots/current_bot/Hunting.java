@@ -7,6 +7,7 @@ import bots.current_bot.spawning.SpawnDecider;
 import bots.current_bot.utils.BotConstants;
 import bots.current_bot.utils.CommonFunctions;
 import bots.current_bot.utils.Logger;
+import bots.current_bot.utils.Neighbourhood;
 import bots.current_bot.utils.MoveRegister;
 import bots.current_bot.navigation.PreferredAxisTiebreaker;
 import bots.current_bot.navigation.Navigation;
@@ -32,7 +33,9 @@ public class Hunting {
                 int friendDistance = 10;
 
                 // Find any friends of the ship we are chasing.
-                for(Position p : CommonFunctions.getNeighbourhood(game.map, s.position, 4)) {
+                Neighbourhood nearShip = Neighbourhood.of(game.map, 4);
+                for(int n=0; n<nearShip.size(); n++) {
+                    Position p = nearShip.position(s.position, n);
                     if(p.equals(s.position)) continue;
                     if(CommonFunctions.hasEnemyShip(game, p)) {
                         friendDistance = game.map.calculateDistance(p, s.position);
@@ -49,7 +52,9 @@ public class Hunting {
                     // Not worth it - the cost exceeds the halite in the ship.
                     if(cost > s.halite) break;
                     if(friendDistance <= r) break;
-                    Logger.info(String.format("Considering hunting %s at radius %d - cost %f", s, r, cost));
+                    if(Logger.enabled(Logger.INFO)) {
+                        Logger.info("Considering hunting %s at radius %d - cost %f", s, r, cost);
+                    }
 
                     // All the hunters must carry little enough that we are happy to collide with the ship.
                     double maxHunterHalite = s.halite - cost;
@@ -59,10 +64,12 @@ public class Hunting {
                     // Try to find a hunter in each direction, who can intercept them along that axis in r turns.
                     for(Direction d : Direction.ALL_CARDINALS) {
                         Position offset = s.position.directionalOffset(d, game.map, r);
-                        Logger.info(String.format("Seeing if we can catch at %s", offset));
+                        if(Logger.enabled(Logger.INFO)) Logger.info("Seeing if we can catch at %s", offset);
                         int leastHalite = (int)(maxHunterHalite + 1);
                         Ship bestShip = null;
-                        for(Position p : CommonFunctions.getNeighbourhood(game.map, offset, r)) {
+                        Neighbourhood nearCutoff = Neighbourhood.of(game.map, r);
+                        for(int n=0; n<nearCutoff.size(); n++) {
+                            Position p = nearCutoff.position(offset, n);
                             Ship interceptor = game.map.at(p).ship;
                             if(interceptor == null || !interceptor.owner.equals(game.myId)) continue;
                             boolean canMove = interceptor.halite >= CommonFunctions.moveCost(game.map.at(p).halite);
@@ -75,7 +82,7 @@ public class Hunting {
                             }
                         }
                         if(bestShip != null) {
-                            Logger.info(String.format("Can cut off with %s", bestShip));
+                            if(Logger.enabled(Logger.INFO)) Logger.info("Can cut off with %s", bestShip);
                             hunterToCutoff.put(bestShip, d);
                         }
                         else {
@@ -87,10 +94,12 @@ public class Hunting {
                     if(canCatch) {
                         // We can catch the ship! Do so, by moving each of the four hunters towards the ship. Prioritise
                         // blocking along their axis.
-                        Logger.info(String.format("Can catch %s!", s));
+                        if(Logger.enabled(Logger.INFO)) Logger.info("Can catch %s!", s);
                         for(Ship interceptor : hunterToCutoff.keySet()) {
                             if(!remainingShips.contains(interceptor)) {
-                                Logger.info(String.format("Interceptor %s can't move this turn", interceptor));
+                                if(Logger.enabled(Logger.INFO)) {
+                                    Logger.info("Interceptor %s can't move this turn", interceptor);
+                                }
                                 continue;
                             }
                             Direction d = hunterToCutoff.get(interceptor);
@@ -112,7 +121,9 @@ public class Hunting {
                                         }
                                         else {
                                             Logger.info("Adjacent - only go in if surrounded");
-                                            for(Position nbr : CommonFunctions.getNeighbourhood(game.map, s.position, 1)) {
+                                            Neighbourhood adjacent = Neighbourhood.of(game.map, 1);
+                                            for(int n=0; n<adjacent.size(); n++) {
+                                                Position nbr = adjacent.position(s.position, n);
                                                 if(nbr.equals(s.position)) continue;
                                                 Ship nbrShip = game.map.at(nbr).ship;
                                                 if(nbrShip == null || !nbrShip.owner.equals(game.myId)) shouldMove = false;
@@ -6,6 +6,7 @@ import bots.current_bot.navigation.Navigation;
 import bots.current_bot.utils.BotConstants;
 import bots.current_bot.utils.CommonFunctions;
 import bots.current_bot.utils.Logger;
+import bots.current_bot.utils.Neighbourhood;
 import bots.current_bot.utils.MoveRegister;
 import hlt.*;
 
@@ -39,23 +40,25 @@ public class Dropoffs {
             // to be better than a ship.
             // Also, for a dropoff to be worth more than 4000, we need halite*c*ship_turn_value > 4000, or halite > K / ship_turn_value.
             double bestHalite = Math.max(BotConstants.get().DROPOFF_HALITE(), BotConstants.get().DROPOFF_HALITE_SHIP_TURN() / MiningFunctions.shipTurnValue());
-            Logger.info(String.format("Need %f halite for a dropoff - %f for absolute threshold, %f / %f = %f for ship-value threshold",
+            Logger.info("Need %f halite for a dropoff - %f for absolute threshold, %f / %f = %f for ship-value threshold",
                     bestHalite,
                     BotConstants.get().DROPOFF_HALITE(),
                     BotConstants.get().DROPOFF_HALITE_SHIP_TURN(),
                     MiningFunctions.shipTurnValue(),
-                    BotConstants.get().DROPOFF_HALITE_SHIP_TURN() / MiningFunctions.shipTurnValue()));
+                    BotConstants.get().DROPOFF_HALITE_SHIP_TURN() / MiningFunctions.shipTurnValue());
             Optional<Position> bestPosition = Optional.empty();
+            Neighbourhood around = Neighbourhood.of(game.map, 1);
             for(int x=0; x<game.map.height; x++) {
                     for(int y=0; y<game.map.width; y++) {
+                        int cell = game.map.cell(x, y);
+                        if(game.map.hasStructure(cell)) continue;
                         MapCell c = game.map.cells[x][y];
-                        if(c.hasStructure()) continue;
                         Position pos = c.position;
                         boolean enemyNearby = false;
 
                         // No dropoff is there's an enemy adjacent to the square. They'll probably mine it.
-                        for(Position nbr : CommonFunctions.getNeighbourhood(game.map, pos, 1)) {
-                            if(CommonFunctions.hasEnemyShip(game, nbr))enemyNearby = true;
+                        for(int n=0; n<around.size(); n++) {
+                            if(game.map.hasEnemyShip(around.cell(cell, n), game.myId))enemyNearby = true;
                         }
                         if (enemyNearby) continue;
 
@@ -109,7 +112,9 @@ public class Dropoffs {
             boolean enemyNearby = false;
 
             // Cancel the plan, even if it is underway, if there's an enemy too close.
-            for(Position nbr : CommonFunctions.getNeighbourhood(game.map, dest, 1)) {
+            Neighbourhood around = Neighbourhood.of(game.map, 1);
+            for(int n=0; n<around.size(); n++) {
+                Position nbr = around.position(dest, n);
                 if(CommonFunctions.hasEnemyShip(game, nbr))enemyNearby = true;
             }
             if(enemyNearby) return  Optional.empty();
@@ -141,12 +146,12 @@ public class Dropoffs {
 
             // Check if we'll have enough halite to build when the returner might arrive.
             if(!turnWhenReady.isPresent()) {
-                Logger.info(String.format("Not enough halite for dropoff expected - save up %d", haliteNeeded));
+                Logger.info("Not enough halite for dropoff expected - save up %d", haliteNeeded);
                 newPlan.get().underway = false;
             }
             else if(whenNeeded < turnWhenReady.get()) {
-                Logger.info(String.format("Want to build dropoff at distance %d from ship, but will take %d turns to gather" +
-                        "halite.", whenNeeded, turnWhenReady.get()));
+                Logger.info("Want to build dropoff at distance %d from ship, but will take %d turns to gather" +
+                        "halite.", whenNeeded, turnWhenReady.get());
                 newPlan.get().underway = false;
             }
             else {
@@ -167,9 +172,11 @@ public class Dropoffs {
     private static double control(Game game, Position position, int radius) {
         Integer ourShips = 0;
         Integer theirShips = 0;
-        for(Position p : CommonFunctions.getNeighbourhood(game.map, position, radius)) {
-            if(!game.map.at(p).hasShip()) continue;
-            if(game.map.at(p).ship.owner.equals(game.myId)) ourShips++;
+        Neighbourhood around = Neighbourhood.of(game.map, radius);
+        for(int n=0; n<around.size(); n++) {
+            int cell = around.cell(position, n);
+            if(!game.map.hasShip(cell)) continue;
+            if(game.map.shipOwner[cell] == game.myId.id) ourShips++;
             else theirShips++;
             if(ourShips + theirShips == BotConstants.get().DROPOFF_TERRITORY_SHIPS()) break;
         }
@@ -196,7 +203,7 @@ public class Dropoffs {
             }
             else {
                 // p is linear between 1 at MIN_EXCEPTIONAL_HALITE and 0 at DROPOFF_COST
-                Logger.info(String.format("Considering exceptional dropoff for ship %s", s));
+                if(Logger.enabled(Logger.INFO)) Logger.info("Considering exceptional dropoff for ship %s", s);
                 int haliteToBuild = Constants.DROPOFF_COST - s.halite - halite;
                 haliteToBuild = haliteToBuild > 0 ? haliteToBuild : 0;
                 if(haliteToBuild > game.me.halite - haliteNeeded) continue;
@@ -0,0 +1,92 @@
+package bots.current_bot.mining;
+
+import bots.current_bot.utils.BotConstants;
+import bots.current_bot.utils.Logger;
+import bots.current_bot.utils.MoveRegister;
+import hlt.*;
+
+import java.util.*;
+
+/**
+ * An epsilon auction for the squares. A ship without a claim bids for the square with the lowest penalised score plus
+ * price, raising its price by how much better it is than the ship's second choice, plus CLAIM_AUCTION_EPSILON. The ship
+ * it outbids goes back in the queue. This gets the total penalised score to within epsilon per ship of the best
+ * assignment. Forced stayers start out holding their claims from last turn at no price. There's no distance priority:
+ * a nearer ship has to outbid like anyone else. We stop after CLAIM_ITERATIONS bids or at the deadline, and ships
+ * without a claim by then go without.
+ */
+class AuctionClaims implements MiningFunctions.ClaimSolver {
+    @Override
+    public void solve(
+            Game game,
+            MoveRegister moveRegister,
+            Map<Position, Double> scorePenalty,
+            Set<Position> illegalPositions,
+            Set<EntityId> forcedStayIds,
+            Map<Integer, Map<Position, Ship>> futurePlannedPositions,
+            Map<Position, Ship> claims,
+            Map<Ship, Position> inverseClaims,
+            long deadline) {
+        int width = game.map.width;
+        double[] prices = new double[width * game.map.height];
+        double epsilon = BotConstants.get().CLAIM_AUCTION_EPSILON();
+        int maxBids = BotConstants.get().CLAIM_ITERATIONS();
+
+        Set<Ship> bidders = moveRegister.getRemainingShips();
+        Deque<Ship> unassigned = new ArrayDeque<>();
+        for(Ship ship : bidders) {
+            if(!inverseClaims.containsKey(ship)) unassigned.add(ship);
+        }
+
+        // The navigator is the expensive part, and nothing it looks at changes during the auction.
+        Map<Ship, Map<Position, Boolean>> navigable = new HashMap<>();
+
+        int bids = 0;
+        while(!unassigned.isEmpty()) {
+            if(bids >= maxBids || System.nanoTime() > deadline) {
+                Logger.info("Out of time for mining claims after %d bids", bids);
+                moveRegister.outOfTime = true;
+                return;
+            }
+            bids++;
+            Ship ship = unassigned.poll();
+            ScoreIndex index = MiningFunctions.getScoreIndex(ship);
+            Map<Position, Boolean> shipNavigable = navigable.computeIfAbsent(ship, s -> new HashMap<>());
+
+            // Penalties and prices only ever add to the score, so once the unpenalised score is past our second
+            // choice, nothing further on matters.
+            int best = -1;
+            double bestCost = Double.POSITIVE_INFINITY;
+            double secondCost = Double.POSITIVE_INFINITY;
+            for(int i=0; i<index.size(); i++) {
+                double score = index.score(i);
+                if(score >= secondCost) break;
+                Position p = index.position(i);
+                double cost = score * scorePenalty.getOrDefault(p, 1.0) + prices[index.cell(i)];
+                if(cost >= secondCost) continue;
+                if(illegalPositions.contains(p)) continue;
+                if(!shipNavigable.computeIfAbsent(p, q -> MiningFunctions.canNavigate(
+                        game, moveRegister, ship, q, futurePlannedPositions))) continue;
+                if(cost < bestCost) {
+                    secondCost = bestCost;
+                    bestCost = cost;
+                    best = i;
+                }
+                else secondCost = cost;
+            }
+            if(best < 0) continue;
+
+            Position p = index.position(best);
+            int cell = index.cell(best);
+            prices[cell] += secondCost < Double.POSITIVE_INFINITY ? secondCost - bestCost + epsilon : epsilon;
+            Ship outbid = claims.get(p);
+            if(outbid != null) {
+                if(Logger.enabled(Logger.INFO)) Logger.info("%s outbid %s for %s", ship, outbid, p);
+                inverseClaims.remove(outbid);
+                if(bidders.contains(outbid)) unassigned.add(outbid);
+            }
+            claims.put(p, ship);
+            inverseClaims.put(ship, p);
+        }
+    }
+}
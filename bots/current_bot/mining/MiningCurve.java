@@ -0,0 +1,51 @@
+package bots.current_bot.mining;
+
+import bots.current_bot.utils.BotConstants;
+import hlt.Constants;
+
+/**
+ * The constant parts of the mining simulation, looked up rather than recalculated on every turn of every square of every
+ * ship. Rebuilt if the constants change.
+ */
+final class MiningCurve {
+    private static volatile MiningCurve current;
+
+    private final BotConstants constants;
+    // Inspiration bonus for a square which is inspired now, by the turn we'd be mining it on.
+    private final double[] inspirationBonus;
+    private final double minInspirationBonus;
+    final double maxNearbyRatio;
+    final double nearbyEnemyBonus;
+    final double nearbyHaliteScale;
+    final double maxNearbyHaliteBonus;
+
+    private MiningCurve(BotConstants constants) {
+        this.constants = constants;
+        double base = constants.MIN_INSPIRATION_BONUS();
+        double max_turns = constants.INSPIRATION_TURN_DROPOFF();
+        inspirationBonus = new double[(int) Math.max(0, Math.floor(max_turns)) + 1];
+        for(int turn=0; turn<inspirationBonus.length; turn++) {
+            // Inspired squares drop from full inspiration to some minimum linearly over some turns.
+            double proportion = turn > max_turns ? 0.0 : (max_turns - turn) / max_turns;
+            inspirationBonus[turn] = proportion * Constants.INSPIRED_BONUS_MULTIPLIER + (1-proportion)*base;
+        }
+        minInspirationBonus = base;
+        maxNearbyRatio = constants.MAX_NEARBY_RATIO();
+        nearbyEnemyBonus = constants.NEARBY_ENEMY_BONUS();
+        maxNearbyHaliteBonus = constants.MAX_NEARBY_HALITE_BONUS();
+        nearbyHaliteScale = 1 + maxNearbyHaliteBonus*0.5;
+    }
+
+    static MiningCurve get() {
+        MiningCurve curve = current;
+        if(curve == null || curve.constants != BotConstants.get()) {
+            curve = new MiningCurve(BotConstants.get());
+            current = curve;
+        }
+        return curve;
+    }
+
+    double inspirationBonus(int turnsSoFar) {
+        return turnsSoFar < inspirationBonus.length ? inspirationBonus[turnsSoFar] : minInspirationBonus;
+    }
+}
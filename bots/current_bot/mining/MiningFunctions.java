@@ -4,6 +4,7 @@ import bots.current_bot.dropoffs.DropoffPlan;
 import bots.current_bot.navigation.LongerAxisTiebreaker;
 import bots.current_bot.navigation.MapStatsKeeper;
 import bots.current_bot.navigation.MultiTurnNavigator;
+import bots.current_bot.navigation.NavigatorCache;
 import bots.current_bot.utils.BotConstants;
 import bots.current_bot.utils.CommonFunctions;
 import bots.current_bot.utils.Logger;
@@ -11,6 +12,8 @@ import bots.current_bot.utils.MoveRegister;
 import hlt.*;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MiningFunctions {
 
@@ -18,81 +21,239 @@ public class MiningFunctions {
     public static Map<Ship, int[][]> intendedMiningTurns;
 
     public static Map<Ship, boolean[][]> miningScoresPresent;
-    public static Map<Position, double[][]> dropoffMiningScores;
-    public static Map<Position, boolean[][]> dropoffMiningScoresPresent;
+    private static Map<Ship, ScoreIndex> scoreIndices = new HashMap<>();
+    public static Map<Position, double[][]> dropoffMiningScores = new HashMap<>();
+    public static Map<Position, boolean[][]> dropoffMiningScoresPresent = new HashMap<>();
+    private static Map<Position, Integer> dropoffMiningScoresTurn = new HashMap<>();
     public static Map<Position, Double> dropoffMiningValue = new HashMap<>();
     private static Map<Position, Ship> lastTurnClaims = new HashMap<>();
 
     public static int turnUpdated = -1;
     private static int shipValueUpdated = -1;
     private static double rollingTurnValueAverage = 30.0;
+    private static ForkJoinPool miningPool;
+    // This turn's searches by starting position and ship halite, which is all a search depends on from the ship.
+    private static Map<Position, Map<Integer, MiningScoresFromPosition>> searchCache = new HashMap<>();
 
     public static void getMiningScores(
             Game game, Collection<Ship> ships, int budgetMilliseconds, Optional<Integer> budgetIterations, Optional<DropoffPlan> plan, MoveRegister moveRegister
     ) throws Exception {
-        Logger.info(String.format("Getting mining scores"));
+        Logger.info("Getting mining scores");
 
+        // Scores are rebuilt from scratch every turn. Reusing last turn's search only works for a ship with the same
+        // position and halite, which practically never happens, and for the imaginary dropoff ships the first
+        // changed square is usually only a few turns out, so there is little of the search left to save.
         turnUpdated = game.turnNumber;
         miningScores = new HashMap<>();
         intendedMiningTurns = new HashMap<>();
 
         miningScoresPresent = new HashMap<>();
+        scoreIndices = new HashMap<>();
+        searchCache = new HashMap<>();
         double[][] returnTurns = getReturnTurns(game, plan);
 
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         Double estimatedIterationTime = 0.05;
         int shipsLeft = ships.size();
         int totalIterations = 0;
         int totalShips = ships.size();
 
-        for(Ship ship : ships) {
-            // Calculate how many iteration we are allowed for this ship. We try to split them evenly.
-            int timeElapsed = (int) (System.currentTimeMillis() - startTime);
-            int timeLeft = budgetMilliseconds - timeElapsed;
-            int iterationsLeft = (int) (timeLeft / estimatedIterationTime);
-            int iterationsAllowed = (int) (iterationsLeft / (shipsLeft + 0.5));
-            if(budgetIterations.isPresent()) {
-                // Override with fixed budget for repeatable games
-                iterationsAllowed = budgetIterations.get() / totalShips;
-            }
-            Logger.info(String.format("Calculating score for ship %s", ship));
-            Logger.info(String.format("Time gone %d, time left %d, total so far %d, est. time per iter %.4f, iterations left %d, iterations for ship %d",
-                    timeElapsed, timeLeft, totalIterations, estimatedIterationTime, iterationsLeft, iterationsAllowed));
+        int threads = BotConstants.get().MINING_THREADS();
+        if(threads > 1 && totalShips > 1) {
+            totalIterations = getMiningScoresInParallel(
+                    game, ships, budgetMilliseconds, budgetIterations, returnTurns, moveRegister, threads);
+        } else {
+            for(Ship ship : ships) {
+                // Calculate how many iteration we are allowed for this ship. We try to split them evenly.
+                int timeElapsed = (int) ((System.nanoTime() - startNanos) / 1000000L);
+                int timeLeft = budgetMilliseconds - timeElapsed;
+                int iterationsLeft = (int) (timeLeft / estimatedIterationTime);
+                int iterationsAllowed = (int) (iterationsLeft / (shipsLeft + 0.5));
+                if(budgetIterations.isPresent()) {
+                    // Override with fixed budget for repeatable games
+                    iterationsAllowed = budgetIterations.get() / totalShips;
+                }
+                if(Logger.enabled(Logger.INFO)) {
+                    Logger.info("Calculating score for ship %s", ship);
+                    Logger.info("Time gone %d, time left %d, total so far %d, est. time per iter %.4f, iterations left %d, iterations for ship %d",
+                            timeElapsed, timeLeft, totalIterations, estimatedIterationTime, iterationsLeft, iterationsAllowed);
+                }
 
-            // This bit actually gets the scores.
-            MiningScoresFromPosition miningScoresFromPosition = new MiningScoresFromPosition(
-                    game, moveRegister, returnTurns, ship, iterationsAllowed).invoke();
-            double[][] scores = miningScoresFromPosition.getScores();
-            int[][] miningTurns = miningScoresFromPosition.getMiningTurns();
+                // This bit actually gets the scores.
+                MiningScoresFromPosition miningScoresFromPosition = new MiningScoresFromPosition(
+                        game, returnTurns, ship, iterationsAllowed).invoke();
+                if(miningScoresFromPosition.ranOutOfTime()) moveRegister.outOfTime = true;
+                double[][] scores = miningScoresFromPosition.getScores();
+                int[][] miningTurns = miningScoresFromPosition.getMiningTurns();
 
-            boolean[][] scored = miningScoresFromPosition.getScored();
+                boolean[][] scored = miningScoresFromPosition.getScored();
 
-            totalIterations += miningScoresFromPosition.getShipIterations();
-            shipsLeft--;
-            estimatedIterationTime = (System.currentTimeMillis() - startTime) / (double)totalIterations;
-            miningScores.put(ship, scores);
-            intendedMiningTurns.put(ship, miningTurns);
+                totalIterations += miningScoresFromPosition.getShipIterations();
+                shipsLeft--;
+                estimatedIterationTime = (System.nanoTime() - startNanos) / 1e6 / totalIterations;
+                miningScores.put(ship, scores);
+                intendedMiningTurns.put(ship, miningTurns);
 
-            miningScoresPresent.put(ship, scored);
+                miningScoresPresent.put(ship, scored);
+                cacheSearch(miningScoresFromPosition);
+            }
         }
-        Logger.info(String.format("Got all mining scores. %d iterations took %d milliseconds. %.3f per iteration.",
-                totalIterations, System.currentTimeMillis() - startTime, (double)(System.currentTimeMillis() - startTime) / totalIterations
-        ));
-
-        // Score for imaginary ships at each dropoff. Used in deciding how valuable a ship turn is when returning.
+        Logger.info("Got all mining scores. %d iterations took %d milliseconds. %.3f per iteration.",
+                totalIterations, (System.nanoTime() - startNanos) / 1000000L, (System.nanoTime() - startNanos) / 1e6 / totalIterations
+        );
+
+        // Score for imaginary ships at each dropoff. Used in deciding how valuable a ship turn is when returning. These
+        // are full map searches, so online they only get a little time past the mining budget. Once that's gone, a
+        // dropoff keeps the scores from the last turn it got any, and a dropoff with none gets an estimate later.
+        long dropoffDeadline = budgetIterations.isPresent() ? Long.MAX_VALUE :
+                startNanos + (budgetMilliseconds + BotConstants.get().DROPOFF_SCORE_TIME()) * 1000000L;
+        Map<Position, double[][]> previousScores = dropoffMiningScores;
+        Map<Position, boolean[][]> previousScoresPresent = dropoffMiningScoresPresent;
         dropoffMiningScores = new HashMap<>();
         dropoffMiningScoresPresent = new HashMap<>();
         int i=-1;
         for(Position p : CommonFunctions.getDropoffPositions(game.me, plan)) {
             Ship fakeShip = new Ship(game.me.id, new EntityId(i), p, 0);
             i--;
-            MiningScoresFromPosition miningScoresFromPosition = new MiningScoresFromPosition(
-                    game, moveRegister, returnTurns, fakeShip, 1000000
-            ).invoke();
-            Logger.info(String.format("Populating dropoff scores for %s", p));
-            dropoffMiningScoresPresent.put(p, miningScoresFromPosition.getScored());
-            dropoffMiningScores.put(p, miningScoresFromPosition.getScores());
+            // Often one of our ships is sitting on the dropoff empty, in which case we already have the scores.
+            MiningScoresFromPosition miningScoresFromPosition = getCachedSearch(p, 0, 1000000);
+            if(miningScoresFromPosition == null && System.nanoTime() < dropoffDeadline) {
+                MiningScoresFromPosition search = new MiningScoresFromPosition(
+                        game, returnTurns, fakeShip, 1000000, dropoffDeadline
+                ).invoke();
+                if(search.ranOutOfTime()) moveRegister.outOfTime = true;
+                cacheSearch(search);
+                // A search the deadline cut short only covers the squares near the dropoff, so an older full grid (or
+                // the estimate) is better.
+                if(search.isComplete()) miningScoresFromPosition = search;
+            }
+            if(miningScoresFromPosition != null) {
+                if(Logger.enabled(Logger.INFO)) Logger.info("Populating dropoff scores for %s", p);
+                dropoffMiningScoresPresent.put(p, miningScoresFromPosition.getScored());
+                dropoffMiningScores.put(p, miningScoresFromPosition.getScores());
+                dropoffMiningScoresTurn.put(p, game.turnNumber);
+            }
+            else if(previousScores.containsKey(p)) {
+                if(Logger.enabled(Logger.INFO)) {
+                    Logger.info("Out of time, keeping dropoff scores for %s from turn %d",
+                            p, dropoffMiningScoresTurn.get(p));
+                }
+                dropoffMiningScoresPresent.put(p, previousScoresPresent.get(p));
+                dropoffMiningScores.put(p, previousScores.get(p));
+            }
+            else {
+                if(Logger.enabled(Logger.INFO)) Logger.info("Out of time, no dropoff scores for %s", p);
+            }
+        }
+        // Only the dropoffs we still have (or plan) keep their grids, so forget when the others were scored too.
+        dropoffMiningScoresTurn.keySet().retainAll(dropoffMiningScores.keySet());
+    }
+
+    private static int getMiningScoresInParallel(
+            Game game, Collection<Ship> ships, int budgetMilliseconds, Optional<Integer> budgetIterations,
+            double[][] returnTurns, MoveRegister moveRegister, int threads
+    ) throws Exception {
+        // Ships are scored independently, so we can hand them out to a pool. Everything they read from MapStatsKeeper
+        // has to be worked out up front, as it is lazily updated.
+        MapStatsKeeper.ensureUpdated(game);
+        if(miningPool == null || miningPool.getParallelism() != threads) {
+            if(miningPool != null) miningPool.shutdown();
+            miningPool = new ForkJoinPool(threads);
+        }
+
+        // Online, all ships share one deadline. Each ship gets its share of the time left when it starts, as the
+        // serial version does, but there is no iteration time to estimate. Locally the fixed iteration budget is
+        // split evenly and there is no deadline, so the scores are the same as the serial version.
+        int totalShips = ships.size();
+        long deadline = System.nanoTime() + budgetMilliseconds * 1000000L;
+        AtomicInteger shipsNotStarted = new AtomicInteger(totalShips);
+        List<Callable<MiningScoresFromPosition>> tasks = new ArrayList<>();
+        for(Ship ship : ships) {
+            tasks.add(() -> {
+                int shipsLeft = shipsNotStarted.getAndDecrement();
+                int iterationsAllowed = Integer.MAX_VALUE;
+                long shipDeadline = deadline;
+                if(budgetIterations.isPresent()) {
+                    iterationsAllowed = budgetIterations.get() / totalShips;
+                    shipDeadline = Long.MAX_VALUE;
+                } else {
+                    long now = System.nanoTime();
+                    long share = (long) ((deadline - now) * Math.min(threads, shipsLeft) / (shipsLeft + 0.5));
+                    shipDeadline = Math.min(deadline, now + share);
+                }
+                return new MiningScoresFromPosition(
+                        game, returnTurns, ship, iterationsAllowed, shipDeadline).invoke();
+            });
+        }
+
+        List<Future<MiningScoresFromPosition>> results = miningPool.invokeAll(tasks);
+        int totalIterations = 0;
+        Iterator<Future<MiningScoresFromPosition>> resultIterator = results.iterator();
+        for(Ship ship : ships) {
+            MiningScoresFromPosition miningScoresFromPosition;
+            try {
+                miningScoresFromPosition = resultIterator.next().get();
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof Exception) throw (Exception) e.getCause();
+                throw e;
+            }
+            if(Logger.enabled(Logger.INFO)) {
+                Logger.info("Scored ship %s with %d iterations", ship, miningScoresFromPosition.getShipIterations());
+            }
+            // The searches ran on the pool, so their out of time flags are only safe to read once we have the result.
+            if(miningScoresFromPosition.ranOutOfTime()) moveRegister.outOfTime = true;
+            totalIterations += miningScoresFromPosition.getShipIterations();
+            miningScores.put(ship, miningScoresFromPosition.getScores());
+            intendedMiningTurns.put(ship, miningScoresFromPosition.getMiningTurns());
+            miningScoresPresent.put(ship, miningScoresFromPosition.getScored());
+            cacheSearch(miningScoresFromPosition);
         }
+        return totalIterations;
+    }
+
+    // Decides which square each remaining ship claims in a round of mining commands. Claims and inverseClaims come in
+    // holding the claims of forced stayers, and go out holding everything claimed. Solvers give up after
+    // CLAIM_ITERATIONS looks at a ship's squares, or at the deadline (System.nanoTime).
+    public interface ClaimSolver {
+        void solve(
+                Game game,
+                MoveRegister moveRegister,
+                Map<Position, Double> scorePenalty,
+                Set<Position> illegalPositions,
+                Set<EntityId> forcedStayIds,
+                Map<Integer, Map<Position, Ship>> futurePlannedPositions,
+                Map<Position, Ship> claims,
+                Map<Ship, Position> inverseClaims,
+                long deadline);
+    }
+
+    static boolean canNavigate(
+            Game game, MoveRegister moveRegister, Ship ship, Position p, Map<Integer, Map<Position, Ship>> futurePlannedPositions) {
+        MultiTurnNavigator navigator = NavigatorCache.get(
+                game, ship, p, moveRegister.getOccupiedPositions(), futurePlannedPositions, BotConstants.get().PLAN_HORIZON(), intendedMiningTurns.get(ship)[p.x][p.y]);
+        return navigator.canNavigate();
+    }
+
+    static ScoreIndex getScoreIndex(Ship ship) {
+        return scoreIndices.computeIfAbsent(ship, s -> new ScoreIndex(miningScores.get(s), miningScoresPresent.get(s)));
+    }
+
+    public static double bestMiningScore(Ship ship) {
+        return getScoreIndex(ship).best();
+    }
+
+    private static void cacheSearch(MiningScoresFromPosition miningScoresFromPosition) {
+        Ship ship = miningScoresFromPosition.getShip();
+        searchCache.computeIfAbsent(ship.position, p -> new HashMap<>()).put(ship.halite, miningScoresFromPosition);
+    }
+
+    private static MiningScoresFromPosition getCachedSearch(Position position, int halite, int iterationsAllowed) {
+        // A finished search is exactly what we'd get again with at least as many iterations. The scores are only read
+        // after this, so they can be shared.
+        MiningScoresFromPosition cached = searchCache.getOrDefault(position, Collections.emptyMap()).get(halite);
+        if(cached == null || !cached.isComplete() || cached.getShipIterations() > iterationsAllowed) return null;
+        if(Logger.enabled(Logger.INFO)) Logger.info("Reusing the search for %s at %s", cached.getShip(), position);
+        return cached;
     }
 
     private static double[][] getReturnTurns(Game game, Optional<DropoffPlan> plan) {
@@ -115,10 +276,9 @@ public class MiningFunctions {
             Map<Position, Double> scorePenalty,
             Set<Position> illegalPositions,
             Set<EntityId> forcedStayIds,
-            Map<Integer, Map<Position, Ship>> futurePlannedPositions) {
+            Map<Integer, Map<Position, Ship>> futurePlannedPositions,
+            long claimDeadline) {
         Logger.info("Getting a round of mining commands");
-        boolean needToIterate = true;
-        Set<Ship> happyShips = new HashSet<>();
         Map<Position, Ship> claims = new HashMap<>();
         Map<Ship, Position> inverseClaims = new HashMap<>();
         Map<Position, Ship> finalClaims = new HashMap<>();
@@ -128,7 +288,7 @@ public class MiningFunctions {
                 Ship s = entry.getValue();
                 if(forcedStayIds.contains(s.id)) {
                     Position p = entry.getKey();
-                    Logger.info(String.format("Propagating claim of forced stayer %s to %s", s, p));
+                    if(Logger.enabled(Logger.INFO)) Logger.info("Propagating claim of forced stayer %s to %s", s, p);
                     claims.put(p, s);
                     inverseClaims.put(s, p);
                 }
@@ -136,64 +296,11 @@ public class MiningFunctions {
         }
 
 
-        // First, ships make claims on squares they think they can reach. Priority goes to ships which are closer.
-        // There is no check here that we can actually all navigate to the squares claimed - two ships may plan to use
-        // the same route.
-        while(needToIterate) {
-            needToIterate = false;
-            for(Ship ship : moveRegister.getRemainingShips()) {
-                if(happyShips.contains(ship)) continue;
-                Double bestScore = Double.POSITIVE_INFINITY;
-                Optional<Position> bestPosition = Optional.empty();
-                boolean[][] scoresPresent = miningScoresPresent.get(ship);
-                double[][] scores = miningScores.get(ship);
-
-                for(int x=0; x<game.map.height; x++) {
-                    for (int y = 0; y < game.map.width; y++) {
-                        if(!scoresPresent[x][y]) continue;
-                        double score = scores[x][y];
-                        if (score >= bestScore) continue;
-                        Position p = Position.getPosition(x, y);
-                        if(scorePenalty.containsKey(p)) score *= scorePenalty.get(p);
-                        if (score >= bestScore) continue;
-                        if (illegalPositions.contains(p)) continue;
-                        boolean canClaim = true;
-                        Ship other_ship = claims.get(p);
-                        Integer ourDistance = game.map.calculateDistance(ship.position, p);
-
-                        if (other_ship != null) {
-                            Integer theirDistance = game.map.calculateDistance(other_ship.position, p);
-                            if(forcedStayIds.contains(other_ship.id)) theirDistance += 1;
-                            canClaim = ourDistance < theirDistance;
-                        }
-                        if (canClaim) {
-                            // Logger.debug(String.format("New best- try to navigate"));
-                            MultiTurnNavigator navigator = new MultiTurnNavigator(
-                                    game, ship, p, moveRegister.getOccupiedPositions(), futurePlannedPositions, BotConstants.get().PLAN_HORIZON(), intendedMiningTurns.get(ship)[p.x][p.y]);
-                            if (navigator.canNavigate()) {
-                                // Logger.debug(String.format("New best!"));
-                                bestScore = score;
-                                bestPosition = Optional.of(p);
-                            }
-                        }
-                    }
-                }
-                if(bestPosition.isPresent()){
-                    // Logger.debug(String.format("Adding claim %s for %s", bestPosition, ship));
-
-                    Position p = bestPosition.get();
-                    Ship otherShip = claims.get(p);
-                    if(otherShip != null) {
-                        Logger.info(String.format("%s removing claim of %s to %s - we are nearer", ship, otherShip, p));
-                        happyShips.remove(otherShip);
-                        needToIterate = true;
-                    }
-                    happyShips.add(ship);
-                    claims.put(p, ship);
-                    inverseClaims.put(ship, p);
-                }
-            }
-        }
+        // First, ships make claims on squares they think they can reach. There is no check here that we can actually all
+        // navigate to the squares claimed - two ships may plan to use the same route.
+        ClaimSolver solver = BotConstants.get().CLAIM_AUCTION() > 0 ? new AuctionClaims() : new NearestShipClaims();
+        solver.solve(game, moveRegister, scorePenalty, illegalPositions, forcedStayIds, futurePlannedPositions,
+                claims, inverseClaims, claimDeadline);
 
         boolean foundAnyCommands = false;
 
@@ -209,23 +316,27 @@ public class MiningFunctions {
             for (Ship ship : shipsList) {
                 Position pos = inverseClaims.get(ship);
                 if (pos == null) {
-                    Logger.info(String.format("Ship %s found no useful mining to do", ship));
+                    if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s found no useful mining to do", ship);
                     continue;
                 }
-                Logger.info(String.format("Processing claim for %s, %d from target %s",
-                        ship, game.map.calculateDistance(ship.position, pos), pos));
+                if(Logger.enabled(Logger.INFO)) {
+                    Logger.info("Processing claim for %s, %d from target %s",
+                            ship, game.map.calculateDistance(ship.position, pos), pos);
+                }
 
                 Entity structure = game.map.at(ship.position).structure;
                 if (structure != null && structure.owner.equals(game.myId)) {
                     double value = miningScores.get(ship)[pos.x][pos.y] * scorePenalty.getOrDefault(pos, 1.0);
-                    Logger.info(String.format("Using actual ship score %f for dropoff %s score", value, ship.position));
+                    if(Logger.enabled(Logger.INFO)) {
+                        Logger.info("Using actual ship score %f for dropoff %s score", value, ship.position);
+                    }
                     dropoffMiningValue.put(ship.position, value);
                 }
 
-                MultiTurnNavigator navigator = new MultiTurnNavigator(
+                MultiTurnNavigator navigator = NavigatorCache.get(
                         game, ship, pos, moveRegister.getOccupiedPositions(), futurePlannedPositions, BotConstants.get().PLAN_HORIZON(), intendedMiningTurns.get(ship)[pos.x][pos.y]);
                 if (navigator.canNavigate()) {
-                    Logger.info(String.format("%s can navigate to %s!", ship, pos));
+                    if(Logger.enabled(Logger.INFO)) Logger.info("%s can navigate to %s!", ship, pos);
                     if (navigator.anyMovesDetermined()) {
                         Logger.info("Some moves determined - marking squares illegal");
                         Map<Integer, Position> determinedMoves = navigator.determinedMoves();
@@ -237,7 +348,7 @@ public class MiningFunctions {
                             if(!futurePlannedPositions.containsKey(t)) futurePlannedPositions.put(t, new HashMap<>());
                             if(!futurePlannedPositions.get(t).containsKey(p)) {
                                 foundDetermined = true;
-                                Logger.info(String.format("Marking %s illegal to time %d", p, t));
+                                if(Logger.enabled(Logger.INFO)) Logger.info("Marking %s illegal to time %d", p, t);
                                 futurePlannedPositions.get(t).put(p, ship);
                             }
                         }
@@ -245,12 +356,12 @@ public class MiningFunctions {
 
                     if(navigator.firstMoveDetermined() || !foundDetermined) {
                         Direction d = navigator.firstMove(new LongerAxisTiebreaker(game, ship, pos));
-                        Logger.info(String.format("Found move for miner %s towards %s", ship, pos));
+                        if(Logger.enabled(Logger.INFO)) Logger.info("Found move for miner %s towards %s", ship, pos);
                         moveRegister.registerMove(ship, d);
                         foundAnyCommands = true;
                         scorePenalty.put(pos, scorePenalty.getOrDefault(pos, 1.0) * BotConstants.get().SECOND_MINING_PENALTY());
-                        Flogger.log(game.turnNumber, pos, String.format("Target of ship %s", ship), Optional.of("blue"));
-                        Flogger.log(game.turnNumber, ship.position, String.format("Targetting %s", pos), Optional.empty());
+                        Flogger.log(game.turnNumber, pos, "Target of ship %d", ship.id.id, 0, Optional.of("blue"));
+                        Flogger.log(game.turnNumber, ship.position, "Targetting Position(%d, %d)", pos.x, pos.y, Optional.empty());
                         finalClaims.put(pos, ship);
                     }
                     else {
@@ -258,7 +369,7 @@ public class MiningFunctions {
                     }
                 }
                 else {
-                    Logger.info(String.format("Miner %s unable to move to destination %s", ship, pos));
+                    if(Logger.enabled(Logger.INFO)) Logger.info("Miner %s unable to move to destination %s", ship, pos);
                 }
             }
         }
@@ -271,20 +382,29 @@ public class MiningFunctions {
             MoveRegister moveRegister,
             Set<Position> illegalPositions,
             Set<EntityId> forcedStayIds,
-            Optional<DropoffPlan> plan) {
+            Optional<DropoffPlan> plan,
+            long claimDeadline) {
         dropoffMiningValue = new HashMap<>();
         boolean loop = true;
         Map<Position, Double> scorePenalty = new HashMap<>();
 
         Map<Integer, Map<Position, Ship>> futurePlannedPositions = new HashMap<>();
         while(loop) {
-            loop = getMiningCommandsOneRound(game, moveRegister, scorePenalty, illegalPositions, forcedStayIds, futurePlannedPositions);
+            loop = getMiningCommandsOneRound(
+                    game, moveRegister, scorePenalty, illegalPositions, forcedStayIds, futurePlannedPositions, claimDeadline);
         }
         for(Position p : CommonFunctions.getDropoffPositions(game.me, plan)) {
             if(dropoffMiningValue.containsKey(p)) continue;
-            Logger.info(String.format("Getting best score for dropoff %s", p));
+            if(Logger.enabled(Logger.INFO)) Logger.info("Getting best score for dropoff %s", p);
 
             boolean[][] scoresPresent = dropoffMiningScoresPresent.get(p);
+            if(scoresPresent == null) {
+                // We ran out of time before ever scoring this dropoff. Assume it's as good as our average ship turn.
+                double estimate = Constants.MAX_HALITE / shipTurnValue();
+                if(Logger.enabled(Logger.INFO)) Logger.info("No scores for dropoff %s, estimating %f", p, estimate);
+                dropoffMiningValue.put(p, estimate);
+                continue;
+            }
 
             double[][] scores = dropoffMiningScores.get(p);
             double bestScore = Double.POSITIVE_INFINITY;
@@ -295,7 +415,7 @@ public class MiningFunctions {
                     if(score < bestScore) bestScore = score;
                 }
             }
-            Logger.info(String.format("Hypothetical ship at dropoff %s would score %f", p, bestScore));
+            if(Logger.enabled(Logger.INFO)) Logger.info("Hypothetical ship at dropoff %s would score %f", p, bestScore);
             dropoffMiningValue.put(p, bestScore);
         }
 
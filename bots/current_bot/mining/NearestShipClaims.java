@@ -0,0 +1,91 @@
+package bots.current_bot.mining;
+
+import bots.current_bot.utils.BotConstants;
+import bots.current_bot.utils.Logger;
+import bots.current_bot.utils.MoveRegister;
+import hlt.*;
+
+import java.util.*;
+
+/**
+ * Ships claim the best square they can navigate to, and a nearer ship can take a claimed square from a ship further
+ * away (forced stayers count as one further). A ship which loses its claim looks again. Nothing bounds how many times
+ * claims change hands, so we give up after CLAIM_ITERATIONS looks or at the deadline, and ships which haven't got a
+ * claim by then go without.
+ */
+class NearestShipClaims implements MiningFunctions.ClaimSolver {
+    @Override
+    public void solve(
+            Game game,
+            MoveRegister moveRegister,
+            Map<Position, Double> scorePenalty,
+            Set<Position> illegalPositions,
+            Set<EntityId> forcedStayIds,
+            Map<Integer, Map<Position, Ship>> futurePlannedPositions,
+            Map<Position, Ship> claims,
+            Map<Ship, Position> inverseClaims,
+            long deadline) {
+        boolean needToIterate = true;
+        Set<Ship> happyShips = new HashSet<>();
+        int looks = 0;
+        int maxLooks = BotConstants.get().CLAIM_ITERATIONS();
+
+        while(needToIterate) {
+            needToIterate = false;
+            for(Ship ship : moveRegister.getRemainingShips()) {
+                if(happyShips.contains(ship)) continue;
+                if(looks >= maxLooks || System.nanoTime() > deadline) {
+                    Logger.info("Out of time for mining claims after %d looks", looks);
+                    moveRegister.outOfTime = true;
+                    // Ships that lost their square and haven't looked again still hold it in inverseClaims.
+                    inverseClaims.entrySet().removeIf(e -> claims.get(e.getValue()) != e.getKey());
+                    return;
+                }
+                looks++;
+                Double bestScore = Double.POSITIVE_INFINITY;
+                Optional<Position> bestPosition = Optional.empty();
+                int bestCell = Integer.MAX_VALUE;
+                ScoreIndex index = MiningFunctions.getScoreIndex(ship);
+
+                // Go through squares best first. Penalties only ever make squares worse, so once the unpenalised score
+                // is worse than our best, nothing further on can beat it. Ties go to the earlier square in the grid.
+                for(int i=0; i<index.size(); i++) {
+                    double score = index.score(i);
+                    if (score > bestScore) break;
+                    Position p = index.position(i);
+                    if(scorePenalty.containsKey(p)) score *= scorePenalty.get(p);
+                    if (score > bestScore || (score == bestScore && index.cell(i) > bestCell)) continue;
+                    if (illegalPositions.contains(p)) continue;
+                    boolean canClaim = true;
+                    Ship other_ship = claims.get(p);
+                    Integer ourDistance = game.map.calculateDistance(ship.position, p);
+
+                    if (other_ship != null) {
+                        Integer theirDistance = game.map.calculateDistance(other_ship.position, p);
+                        if(forcedStayIds.contains(other_ship.id)) theirDistance += 1;
+                        canClaim = ourDistance < theirDistance;
+                    }
+                    if (canClaim && MiningFunctions.canNavigate(game, moveRegister, ship, p, futurePlannedPositions)) {
+                        bestScore = score;
+                        bestPosition = Optional.of(p);
+                        bestCell = index.cell(i);
+                    }
+                }
+                if(bestPosition.isPresent()){
+                    Position p = bestPosition.get();
+                    Ship otherShip = claims.get(p);
+                    if(otherShip != null) {
+                        if(Logger.enabled(Logger.INFO)) {
+                            Logger.info("%s removing claim of %s to %s - we are nearer", ship, otherShip, p);
+                        }
+                        happyShips.remove(otherShip);
+                        needToIterate = true;
+                    }
+                    happyShips.add(ship);
+                    claims.put(p, ship);
+                    inverseClaims.put(ship, p);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package bots.current_bot.mining;
+
+import bots.current_bot.navigation.MapStatsKeeper;
+import bots.current_bot.utils.CommonFunctions;
+import bots.current_bot.utils.Logger;
+import hlt.*;
+
+/**
+ * The breadth first search behind the mining scores. Finds the fewest turns (and then the most halite) a ship can get
+ * to every square with. All the working state lives in flat arrays indexed by cell id (x * width + y), which are kept
+ * between searches, so running a search doesn't allocate anything. Each thread gets its own search.
+ */
+final class ReachabilitySearch {
+    private static final ThreadLocal<ReachabilitySearch> searches = new ThreadLocal<>();
+
+    final int width;
+    final int height;
+    final int cells;
+
+    // The neighbours of every cell, starting at 4 * cell id. Same order as Neighbourhood.
+    private final int[] neighbours;
+    private final Position[] positions;
+
+    // Results of the last search. Turns and halite are only meaningful for scored cells.
+    private final int[] turnsToReach;
+    private final int[] haliteOnReaching;
+    private final int[] scoredStamp;
+    private int stamp = 0;
+    private boolean truncated;
+    private boolean outOfTime;
+
+    // Cells waiting to be expanded, bucketed by turns to reach modulo 3. While we expand turn t, the other two buckets
+    // collect turns t+1 and t+2. A cell can be in both of those at once (reached in two turns, and then found in one),
+    // in which case it is expanded twice. Each bucket is expanded in the order its cells were added.
+    private final int[][] buckets = new int[3][];
+    private final int[] bucketSizes = new int[3];
+    private final boolean[] queued;
+
+    static ReachabilitySearch get(GameMap map) {
+        ReachabilitySearch search = searches.get();
+        if(search == null || search.width != map.width || search.height != map.height) {
+            search = new ReachabilitySearch(map);
+            searches.set(search);
+        }
+        return search;
+    }
+
+    private ReachabilitySearch(GameMap map) {
+        width = map.width;
+        height = map.height;
+        cells = width * height;
+        neighbours = new int[4 * cells];
+        positions = new Position[cells];
+        for(int x=0; x<height; x++) {
+            for(int y=0; y<width; y++) {
+                int cell = x * width + y;
+                positions[cell] = Position.getPosition(x, y);
+                neighbours[4*cell] = map.normaliseX(x - 1) * width + y;
+                neighbours[4*cell + 1] = x * width + map.normaliseY(y + 1);
+                neighbours[4*cell + 2] = x * width + map.normaliseY(y - 1);
+                neighbours[4*cell + 3] = map.normaliseX(x + 1) * width + y;
+            }
+        }
+        turnsToReach = new int[cells];
+        haliteOnReaching = new int[cells];
+        scoredStamp = new int[cells];
+        queued = new boolean[3 * cells];
+
+        for(int b=0; b<3; b++) buckets[b] = new int[cells];
+    }
+
+    boolean isScored(int cell) {
+        return scoredStamp[cell] == stamp;
+    }
+
+    int turnsToReach(int cell) {
+        return turnsToReach[cell];
+    }
+
+    int haliteOnReaching(int cell) {
+        return haliteOnReaching[cell];
+    }
+
+    // Whether the last search stopped with squares still left to expand.
+    boolean wasTruncated() {
+        return truncated;
+    }
+
+    // Whether the last search was stopped partway through a layer by the iterations allowed or the deadline. Searches
+    // run on the mining pool, so this is passed back with the scores rather than set on the MoveRegister here.
+    boolean ranOutOfTime() {
+        return outOfTime;
+    }
+
+    /**
+     * Searches outwards from the ship, returning the number of squares expanded. Stops after the first turn layer
+     * which takes us over the iterations allowed, or at the first layer boundary after the deadline (System.nanoTime).
+     */
+    int search(Game game, Ship ship, int iterationsAllowed, long deadline) throws Exception {
+        stamp++;
+        truncated = false;
+        outOfTime = false;
+        for(int b=0; b<3; b++) clearBucket(b);
+
+        int start = ship.position.x * width + ship.position.y;
+        scoredStamp[start] = stamp;
+        turnsToReach[start] = 0;
+        haliteOnReaching[start] = ship.halite;
+        push(0, start);
+
+        int shipIterations = 0;
+        int currentTurnsToReach = 0;
+        while(bucketSizes[currentTurnsToReach % 3] > 0 || bucketSizes[(currentTurnsToReach + 1) % 3] > 0) {
+            if (shipIterations > iterationsAllowed) {
+                // If this happens, we'll only end up evaluating a subset of squares near us. In practise, this never
+                // happens online.
+                Logger.info("Out of iterations");
+                outOfTime = true;
+                truncated = true;
+                break;
+            }
+            if (System.nanoTime() > deadline) {
+                Logger.info("Out of time for mining search");
+                outOfTime = true;
+                truncated = true;
+                break;
+            }
+            int current = currentTurnsToReach % 3;
+            int next = (currentTurnsToReach + 1) % 3;
+            int plusOne = (currentTurnsToReach + 2) % 3;
+            int[] layer = buckets[current];
+            int layerSize = bucketSizes[current];
+            for(int i=0; i<layerSize; i++) {
+                // Run through the positions we can get to on a particular turn, finding the squares beyond them.
+                int pos = layer[i];
+                shipIterations++;
+                int posHalite = game.map.cells[pos / width][pos % width].halite;
+                int previousShipHalite = haliteOnReaching[pos];
+                int previousTurns = turnsToReach[pos];
+                int one_step_cost = posHalite / Constants.MOVE_COST_RATIO;
+                int nextTurns;
+                int nextHalite;
+
+                if (one_step_cost > previousShipHalite) {
+                    // We'll have to stay here for a turn. Following squares will take two more turns, and we'll have a
+                    // bit more halite.
+                    int mined = CommonFunctions.mineAmount(ship.halite, posHalite);
+                    int haliteAfterStay = previousShipHalite + mined;
+                    int haliteLeft = posHalite - mined;
+                    nextHalite = haliteAfterStay - haliteLeft / Constants.MOVE_COST_RATIO;
+                    nextTurns = previousTurns + 2;
+                } else {
+                    nextTurns = previousTurns + 1;
+                    nextHalite = previousShipHalite - one_step_cost;
+                }
+
+                for(int k=4*pos; k<4*pos + 4; k++) {
+                    int nbr = neighbours[k];
+                    // Don't allow paths to use squares that aren't safe to visit.
+                    if (!MapStatsKeeper.canVisitFuture(game, positions[nbr], ship.halite, previousTurns)) {
+                        continue;
+                    }
+
+                    // Update the position if we can get there in fewer turns, or the same turns with more halite.
+                    if (scoredStamp[nbr] != stamp || nextTurns < turnsToReach[nbr] ||
+                            (nextTurns == turnsToReach[nbr] && nextHalite > haliteOnReaching[nbr])) {
+                        scoredStamp[nbr] = stamp;
+                        turnsToReach[nbr] = nextTurns;
+                        haliteOnReaching[nbr] = nextHalite;
+                        if (nextTurns == currentTurnsToReach + 1) {
+                            push(next, nbr);
+                        } else if (nextTurns == currentTurnsToReach + 2) {
+                            push(plusOne, nbr);
+                        } else {
+                            throw new Exception(String.format(
+                                    "Neighbour %s is an unexpected distance %d away", positions[nbr], nextTurns));
+                        }
+                    }
+                }
+            }
+            clearBucket(current);
+            if (shipIterations > iterationsAllowed) {
+                truncated = bucketSizes[next] > 0 || bucketSizes[plusOne] > 0;
+                break;
+            }
+            currentTurnsToReach++;
+        }
+        return shipIterations;
+    }
+
+    private void push(int bucket, int cell) {
+        if(queued[bucket * cells + cell]) return;
+        queued[bucket * cells + cell] = true;
+        buckets[bucket][bucketSizes[bucket]++] = cell;
+    }
+
+    private void clearBucket(int bucket) {
+        int[] contents = buckets[bucket];
+        for(int i=0; i<bucketSizes[bucket]; i++) queued[bucket * cells + contents[i]] = false;
+        bucketSizes[bucket] = 0;
+    }
+}
@@ -0,0 +1,69 @@
+package bots.current_bot.mining;
+
+import hlt.Position;
+
+/**
+ * A ship's scored squares, best first. Squares are ordered by score, then by x and y, which is the order a scan of the
+ * grid would prefer them in. Squares that can't be mined (infinite scores) are left out.
+ */
+final class ScoreIndex {
+    private final int width;
+    private final double[] sortedScores;
+    private final int[] sortedCells;
+    private final int size;
+
+    ScoreIndex(double[][] scores, boolean[][] scoresPresent) {
+        width = scores[0].length;
+        int[] cells = new int[scores.length * width];
+        int n = 0;
+        for(int x=0; x<scores.length; x++) {
+            for(int y=0; y<width; y++) {
+                if(scoresPresent[x][y] && scores[x][y] < Double.POSITIVE_INFINITY) cells[n++] = x * width + y;
+            }
+        }
+        // Cells go in ascending, and merge sort is stable, so equal scores stay in scan order.
+        sort(scores, cells, new int[n], 0, n);
+        size = n;
+        sortedCells = cells;
+        sortedScores = new double[n];
+        for(int i=0; i<n; i++) sortedScores[i] = scores[cells[i] / width][cells[i] % width];
+    }
+
+    int size() {
+        return size;
+    }
+
+    double score(int i) {
+        return sortedScores[i];
+    }
+
+    int cell(int i) {
+        return sortedCells[i];
+    }
+
+    Position position(int i) {
+        return Position.getPosition(sortedCells[i] / width, sortedCells[i] % width);
+    }
+
+    double best() {
+        return size > 0 ? sortedScores[0] : Double.POSITIVE_INFINITY;
+    }
+
+    private void sort(double[][] scores, int[] cells, int[] buffer, int from, int to) {
+        if(to - from < 2) return;
+        int mid = (from + to) >>> 1;
+        sort(scores, cells, buffer, from, mid);
+        sort(scores, cells, buffer, mid, to);
+        int i = from;
+        int j = mid;
+        int k = from;
+        while(i < mid && j < to) {
+            double left = scores[cells[i] / width][cells[i] % width];
+            double right = scores[cells[j] / width][cells[j] % width];
+            buffer[k++] = right < left ? cells[j++] : cells[i++];
+        }
+        while(i < mid) buffer[k++] = cells[i++];
+        while(j < to) buffer[k++] = cells[j++];
+        System.arraycopy(buffer, from, cells, from, to - from);
+    }
+}
@@ -9,7 +9,7 @@ import hlt.Ship;
 public class AnyMoves {
     public static void getMoveCommands(Game game, MoveRegister moveRegister) throws Exception {
         for(Ship ship : moveRegister.getRemainingShips()) {
-            Logger.info(String.format("Ship %s moving anywhere", ship));
+            if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s moving anywhere", ship);
             Direction d = Navigation.moveAnywhere(game, ship, moveRegister.getOccupiedPositions(), moveRegister.mustMove(ship), new RandomTiebreaker());
             moveRegister.registerMove(ship, d);
         }
@@ -4,7 +4,10 @@ import bots.current_bot.dropoffs.DropoffPlan;
 import bots.current_bot.spawning.SpawnDecider;
 import bots.current_bot.utils.BotConstants;
 import bots.current_bot.utils.CommonFunctions;
+import bots.current_bot.utils.DiamondKernel;
+import bots.current_bot.utils.DiamondSums;
 import bots.current_bot.utils.Logger;
+import bots.current_bot.utils.Neighbourhood;
 import hlt.*;
 
 import java.util.*;
@@ -12,16 +15,70 @@ import java.util.stream.Collectors;
 
 /**
  * Calculates various stats which it's more efficient to calculate once each turn than on the fly.
+ *
+ * Each map is a StatsLayer, calculated the first time it's needed in a turn, and only if something it's calculated from
+ * has changed. The getters bring the layers they use up to date.
  */
 public class MapStatsKeeper {
-    // What squares are inspired, for every player
-    private static boolean[][][] inspiredMaps;
+    // Inputs, looking at the game itself.
+    private static final StatsLayer TURN = StatsLayer.input("Turn", g -> true);
+    private static final StatsLayer SHIPS = StatsLayer.input("Ships", MapStatsKeeper::shipsChanged);
+    private static final StatsLayer HALITE = StatsLayer.input("Halite", MapStatsKeeper::haliteChanged);
+    private static final StatsLayer STRUCTURES = StatsLayer.input("Structures", MapStatsKeeper::structuresChanged);
+    private static final StatsLayer SHIP_VALUE = StatsLayer.input("Ship value", MapStatsKeeper::shipValueChanged);
+
+    // Aggression builds on what happened last turn, so runs every turn.
+    private static final StatsLayer AGGRESSION = StatsLayer.derived(
+            "Aggression", MapStatsKeeper::updateAggressionMaps, TURN);
+    private static final StatsLayer INSPIRATION = StatsLayer.derived(
+            "Inspiration", MapStatsKeeper::updateInspiringShips, SHIPS);
+    private static final StatsLayer TERRITORY = StatsLayer.derived(
+            "Territory", MapStatsKeeper::updateTerritory, SHIPS, STRUCTURES);
+    private static final StatsLayer THRESHOLDS = StatsLayer.derived(
+            "Thresholds", MapStatsKeeper::updateThresholdMaps, SHIPS, HALITE, STRUCTURES, SHIP_VALUE, INSPIRATION, TERRITORY);
+    private static final StatsLayer FUTURE_THRESHOLDS = StatsLayer.derived(
+            "Future thresholds", g -> updateFutureThresholdMap(g, g.me), HALITE, THRESHOLDS);
+    private static final StatsLayer ENEMY_COLLISIONS = StatsLayer.derived(
+            "Enemy collisions", g -> enemyHappyWithCollision = calculateEnemyCollisionMap(g), SHIPS, HALITE, THRESHOLDS, AGGRESSION);
+    private static final StatsLayer DROPOFF_DISTANCES = StatsLayer.derived(
+            "Dropoff distances", MapStatsKeeper::updateNearestDropoffs, STRUCTURES);
+    private static final StatsLayer NEAREST_ENEMY = StatsLayer.derived(
+            "Nearest enemy", MapStatsKeeper::updateNearestEnemyDistance, SHIPS);
+    private static final StatsLayer HALITE_SUMS = StatsLayer.derived(
+            "Halite sums", g -> haliteSums = new DiamondSums(
+                    g.map, Math.max(BotConstants.get().NEARBY_HALITE_RADIUS(), BotConstants.get().DROPOFF_RADIUS())),
+            HALITE);
+    private static final StatsLayer NEARBY_HALITE = StatsLayer.derived(
+            "Nearby halite", MapStatsKeeper::updateNearbyHaliteMap, HALITE_SUMS);
+
+    private static final StatsLayer[] LAYERS = {
+            AGGRESSION, INSPIRATION, TERRITORY, THRESHOLDS, FUTURE_THRESHOLDS, ENEMY_COLLISIONS, DROPOFF_DISTANCES,
+            NEAREST_ENEMY, HALITE_SUMS, NEARBY_HALITE};
+
+    // How many ships each player has within INSPIRATION_RADIUS of every square (by cell id, x * width + y), and how many
+    // ships in total. A square is inspired for a player when enough of the ships near it are someone else's. These are
+    // kept between turns and only changed for ships which moved, appeared or were destroyed.
+    private static short[][] inspiringShips;
+    private static short[] allInspiringShips;
+    // The ships counted in those, as we last saw them.
+    private static Map<EntityId, Ship> inspiringShipsCounted = new HashMap<>();
+
+    // Control of every square (by cell id) for every player, between 0 and 1. See updateTerritory.
+    private static double[][] territory;
+    // What a ship or structure counts for at each distance.
+    private static double[] territoryWeights;
 
     // The maximum halite a ship can have to safely go to each square, for each player
     private static double[][][] haliteThreshholdMap;
 
     // A smoothed version of haliteThreshholdMap, for us only.
-    private static double[][] futureThresholdMap;
+    private static double[] futureThresholdMap;
+    // The two halves of the diamond futureThresholdMap is smoothed over. See updateFutureThresholdMap.
+    private static DiamondKernel futureHaliteKernel;
+    private static DiamondKernel futureThresholdKernel;
+
+    // Sums of halite within some distance of each square.
+    private static DiamondSums haliteSums;
 
     // Smoothed amount of halite near each square.
     private static double[][] nearbyHaliteMap;
@@ -29,16 +86,25 @@ public class MapStatsKeeper {
     // Largest number in the nearbyHaliteMap, used for normalisation.
     private static double maxNearbyHalite;
 
-    // Distance to the nearest dropoff for every square and player.
-    private static int[][][] nearestDropoffDistance;
-    // Location of the nearest dropoff for every square and player.
-    private static Position[][][] nearestDropoff;
+    // Searches for the distance fields below, which are indexed by cell id (x * width + y).
+    private static MultiSourceBfs bfs;
+
+    // Distance to the nearest dropoff (including the shipyard) for every player and square.
+    private static int[][] nearestDropoffDistance;
+    // Which of the player's dropoffs is nearest to every square, as an index into dropoffSources.
+    private static int[][] nearestDropoffSource;
+    // Every player's shipyard and dropoffs, shipyard first.
+    private static Position[][] dropoffSources;
 
     // Distance to the nearest enemy for every square.
-    private static int[][] nearestEnemyDistance;
+    private static int[] nearestEnemyDistance;
+    private static int[] nearestEnemySource;
 
-    // Last turn these maps were updated.
-    private static int turnSeen = -1;
+    // What the input layers last saw, to tell whether it's changed.
+    private static int[] shipsSeen = new int[0];
+    private static int[] haliteSeen = new int[0];
+    private static int structuresSeen = -1;
+    private static double shipValueSeen = Double.NaN;
 
     // The set of positions some enemy ship is brave enough to go to.
     private static Set<Position> enemyHappyWithCollision;
@@ -48,103 +114,149 @@ public class MapStatsKeeper {
     // For every other player, how aggressive they are when moving to squares with enemies.
     private static double[] moveFullAggression;
 
-    // A load of trackers used to detect collisions and potential collisions.
-    private static Map<EntityId, Integer> previousTurnHalites = new HashMap<>();
-    private static Map<EntityId, Position> previousShipsToPositions = new HashMap<>();
-    private static Map<Position, EntityId> previousPositionsToShips = new HashMap<>();
-    private static Map<EntityId, PlayerId> previousShipOwners = new HashMap<>();
-    private static Set<EntityId> previousShips = new HashSet<>();
-    private static Map<EntityId, Boolean> surrounded = new HashMap<>();
-    private static int[][] previousTurnHalite;
-
-    private static boolean[][] getInspirationMap(Game game, PlayerId player) {
-        // Work out what is inspired.
-        boolean[][] inspiration = new boolean[game.map.height][game.map.width];
-        for(int x=0; x < game.map.height; x++) {
-            for (int y = 0; y < game.map.height; y++) {
-                Position pos = Position.getPosition(x, y);
-                int enemies = 0;
-                for(Position p : CommonFunctions.getNeighbourhood(game.map, pos, Constants.INSPIRATION_RADIUS)) {
-                    if(game.map.at(p).hasShip() && !game.map.at(p).ship.owner.equals(player)) enemies++;
+    // A load of trackers used to detect collisions and potential collisions. Ship ids count up from 0 across all
+    // players, so what we know about each ship is kept in arrays indexed by id, which grow as new ships appear.
+    private static int aggressionUpdates = 1;
+    // The last aggression update each ship was seen alive in. Updates are counted from 2, so ships we've never seen,
+    // left at 0, don't look like they were here last turn.
+    private static int[] shipSeenInUpdate = new int[0];
+    private static int[] previousTurnHalites = new int[0];
+    private static Position[] previousShipPositions = new Position[0];
+    private static int[] previousShipOwners = new int[0];
+    private static boolean[] surrounded = new boolean[0];
+    // The ships alive last turn, in the order we saw them.
+    private static int[] previousShips = new int[0];
+    // The id of the ship on every square last turn, or -1, by cell id. Also the same for ships which died this turn.
+    private static int[] previousShipAt;
+    private static int[] deadShipAt;
+    // Halite on every square last turn, by cell id.
+    private static int[] previousTurnHalite;
+
+    private static void updateInspiringShips(Game game) {
+        int cells = game.map.width * game.map.height;
+        if(allInspiringShips == null || allInspiringShips.length != cells || inspiringShips.length != game.players.size()) {
+            inspiringShips = new short[game.players.size()][cells];
+            allInspiringShips = new short[cells];
+            inspiringShipsCounted = new HashMap<>();
+        }
+
+        Map<EntityId, Ship> counted = new HashMap<>();
+        for(Player player : game.players) {
+            for(Ship ship : player.ships.values()) {
+                Ship previous = inspiringShipsCounted.remove(ship.id);
+                if(previous == null || !previous.position.equals(ship.position)) {
+                    if(previous != null) countInspiringShip(game, previous, -1);
+                    countInspiringShip(game, ship, 1);
                 }
-                boolean inspired = enemies >= Constants.INSPIRATION_SHIP_COUNT;
-                inspiration[pos.x][pos.y] = inspired;
+                counted.put(ship.id, ship);
             }
         }
-        return inspiration;
+        // Anything we haven't seen this turn has been destroyed.
+        for(Ship ship : inspiringShipsCounted.values()) countInspiringShip(game, ship, -1);
+        inspiringShipsCounted = counted;
+    }
+
+    private static void countInspiringShip(Game game, Ship ship, int change) {
+        short[] playerShips = inspiringShips[ship.owner.id];
+        Neighbourhood inspirationRange = Neighbourhood.of(game.map, Constants.INSPIRATION_RADIUS);
+        for(int i=0; i<inspirationRange.size(); i++) {
+            int cell = inspirationRange.cell(ship.position, i);
+            playerShips[cell] += change;
+            allInspiringShips[cell] += change;
+        }
     }
 
     public static void updateMaps(Game game) {
-        Logger.info(String.format("Updating inspiration maps for turn %d", game.turnNumber));
-        turnSeen = game.turnNumber;
-        updateAggressionMaps(game);
+        // Aggression has to see what happened since last turn before the thresholds it's measured against move on, and
+        // both have to happen every turn for that to work. Everything else waits until it's needed.
+        Logger.info("Updating inspiration maps for turn %d", game.turnNumber);
+        AGGRESSION.ensure(game);
+        THRESHOLDS.ensure(game);
+    }
 
-        inspiredMaps = new boolean[game.players.size()][game.map.height][game.map.width];
-        for(Player player : game.players) {
-            inspiredMaps[player.id.id] = getInspirationMap(game, player.id);
-        }
-        haliteThreshholdMap = new double[game.players.size()][game.map.height][game.map.width];
+    public static void logLayerTimes() {
+        if(!Logger.log_time) return;
+        StringBuilder times = new StringBuilder("Map layers so far:");
+        for(StatsLayer layer : LAYERS) times.append(" ").append(layer.summary()).append(";");
+        Logger.logtime(times.toString());
+    }
+
+    private static boolean shipsChanged(Game game) {
+        int ships = 0;
+        for(Player player : game.players) ships += player.ships.size();
+        int[] seen = new int[5 * ships];
+        int i = 0;
         for(Player player : game.players) {
-            haliteThreshholdMap[player.id.id] = playerHaliteThresholdMap(game, player);
-        }
-        futureThresholdMap = new double[game.map.height][game.map.width];
-        for(int x=0; x< game.map.height; x++){
-            for(int y=0; y < game.map.width; y++) {
-                futureThresholdMap[x][y] = thresholdFuture(game, game.me, x, y);
+            for(Ship ship : player.ships.values()) {
+                seen[i++] = player.id.id;
+                seen[i++] = ship.id.id;
+                seen[i++] = ship.position.x;
+                seen[i++] = ship.position.y;
+                seen[i++] = ship.halite;
             }
         }
+        boolean changed = !Arrays.equals(seen, shipsSeen);
+        shipsSeen = seen;
+        return changed;
+    }
 
-        enemyHappyWithCollision = calculateEnemyCollisionMap(game);
+    private static boolean haliteChanged(Game game) {
+        boolean changed = !Arrays.equals(haliteSeen, game.map.halite);
+        if(changed) haliteSeen = game.map.halite.clone();
+        return changed;
+    }
 
-        // Update the maps for nearest dropoffs and their distances. No idea why this isn't its own function.
-        nearestDropoff = new Position[game.players.size()][game.map.height][game.map.width];
-        nearestDropoffDistance = new int[game.players.size()][game.map.height][game.map.width];
-        for(Player player : game.players) {
-            int id = player.id.id;
-            List<Position> dropoffPositions = player.dropoffs.values().stream().map(d -> d.position).collect(Collectors.toList());
-            for(int x=0; x< game.map.height; x++){
-                for(int y=0; y < game.map.width; y++){
-                    int bestDistance = game.map.calculateDistance(x, y, player.shipyard.position);
-                    Position bestDropoff = player.shipyard.position;
-                    for(Position p : dropoffPositions) {
-                        int distance = game.map.calculateDistance(x, y, p);
-                        if(distance < bestDistance) {
-                            bestDistance = distance;
-                            bestDropoff = p;
-                        }
-                    }
-                    nearestDropoff[id][x][y] = bestDropoff;
-                    nearestDropoffDistance[id][x][y] = bestDistance;
-                }
-            }
-        }
+    private static boolean structuresChanged(Game game) {
+        // Dropoffs are never destroyed, so counting them is enough.
+        int structures = 0;
+        for(Player player : game.players) structures += 1 + player.dropoffs.size();
+        boolean changed = structures != structuresSeen;
+        structuresSeen = structures;
+        return changed;
+    }
 
-        updateNearestEnemyDistance(game);
+    private static boolean shipValueChanged(Game game) {
+        boolean changed = SpawnDecider.shipValue != shipValueSeen;
+        shipValueSeen = SpawnDecider.shipValue;
+        return changed;
+    }
 
-        updateNearbyHaliteMap(game);
+    private static void updateThresholdMaps(Game game) {
+        haliteThreshholdMap = new double[game.players.size()][game.map.height][game.map.width];
+        for(Player player : game.players) {
+            haliteThreshholdMap[player.id.id] = playerHaliteThresholdMap(game, player);
+        }
+    }
 
+    private static MultiSourceBfs bfs(Game game) {
+        if(bfs == null || !bfs.fits(game.map)) {
+            bfs = new MultiSourceBfs(game.map);
+            dropoffSources = null;
+            nearestEnemyDistance = null;
+        }
+        return bfs;
     }
 
     private static void updateNearbyHaliteMap(Game game) {
-        // Calculate the amount of nearby halite at every square. We count squares exponentially less with distance.
+        // Calculate the amount of nearby halite at every square. We count squares exponentially less with distance,
+        // with weight w^d at distance d from 1 to the radius, leaving out the square itself. With S(d) the halite
+        // within d, the squares at distance d add up to S(d) - S(d-1), so we can sum diamonds instead of rings: S(d)
+        // gets weight w^d (if d > 0) less w^(d+1) (if d < radius).
+        int radius = BotConstants.get().NEARBY_HALITE_RADIUS();
+        double dropoff = BotConstants.get().NEARBY_HALITE_DROPOFF();
+        double[] diamondWeights = new double[radius + 1];
+        for(int distance=0; distance<=radius; distance++) {
+            if(distance > 0) diamondWeights[distance] += Math.pow(dropoff, distance);
+            if(distance < radius) diamondWeights[distance] -= Math.pow(dropoff, distance + 1);
+        }
+
         nearbyHaliteMap = new double[game.map.height][game.map.width];
         maxNearbyHalite = 0;
         for(int x=0; x < game.map.height; x++) {
-            for (int y = 0; y < game.map.height; y++) {
-                Position pos =  Position.getPosition(x, y);
+            for (int y = 0; y < game.map.width; y++) {
                 double nearbyHalite = 0;
-                for(int distance=1; distance<=BotConstants.get().NEARBY_HALITE_RADIUS(); distance++) {
-                    double weight = Math.pow(BotConstants.get().NEARBY_HALITE_DROPOFF(), distance);
-                    for(int dx = -distance; dx <= distance; dx++) {
-                        int dy = distance - Math.abs(dx);
-                        Position nbr = pos.withVectorOffset(game.map, dx, dy);
-                        nearbyHalite += weight * game.map.at(nbr).halite;
-                        if(dy != 0) {
-                            dy = -dy;
-                            nbr = pos.withVectorOffset(game.map, dx, dy);
-                            nearbyHalite += weight * game.map.at(nbr).halite;
-                        }
-                    }
+                for(int distance=0; distance<=radius; distance++) {
+                    nearbyHalite += diamondWeights[distance] * haliteSums.sum(x, y, distance);
                 }
                 if(nearbyHalite > maxNearbyHalite) maxNearbyHalite = nearbyHalite;
                 nearbyHaliteMap[x][y] = nearbyHalite;
@@ -152,47 +264,74 @@ public class MapStatsKeeper {
         }
     }
 
+    // Total halite within radius of the position, including the position itself.
+    public static long haliteWithin(Game game, Position position, int radius) {
+        HALITE_SUMS.ensure(game);
+        if(radius > haliteSums.maxRadius()) haliteSums = new DiamondSums(game.map, radius);
+        return haliteSums.sum(position.x, position.y, radius);
+    }
+
+    public static void ensureUpdated(Game game) {
+        // After this, nothing in here changes until the next turn, so the getters are safe to call from several
+        // threads at once.
+        for(StatsLayer layer : LAYERS) layer.ensure(game);
+    }
+
     public static double getNearbyHaliteScore(Game game, int x, int y) {
-        if(game.turnNumber > turnSeen) updateMaps(game);
+        NEARBY_HALITE.ensure(game);
         return nearbyHaliteMap[x][y] / maxNearbyHalite;
     }
 
-    private static void updateNearestEnemyDistance(Game game) {
-        // Finds the distance to the nearest enemy at every square, by searching outwards from enemy ships.
-        nearestEnemyDistance = new int[game.map.height][game.map.width];
+    private static void updateNearestDropoffs(Game game) {
+        // Finds the nearest dropoff to every square, for every player. Dropoffs are never destroyed, so these only
+        // change on turns when someone builds one. When dropoffs are the same distance away, the shipyard wins, then
+        // whichever dropoff came first.
+        MultiSourceBfs bfs = bfs(game);
+        if(dropoffSources == null || dropoffSources.length != game.players.size()) {
+            dropoffSources = new Position[game.players.size()][0];
+            nearestDropoffDistance = new int[game.players.size()][bfs.cells];
+            nearestDropoffSource = new int[game.players.size()][bfs.cells];
+        }
+        for(Player player : game.players) {
+            int id = player.id.id;
+            if(dropoffSources[id].length == player.dropoffs.size() + 1) continue;
+            Position[] sources = new Position[player.dropoffs.size() + 1];
+            int[] sourceCells = new int[sources.length];
+            sources[0] = player.shipyard.position;
+            int i = 1;
+            for(Dropoff d : player.dropoffs.values()) sources[i++] = d.position;
+            for(i=0; i<sources.length; i++) sourceCells[i] = sources[i].x * bfs.width + sources[i].y;
+            bfs.search(sourceCells, sources.length, nearestDropoffDistance[id], nearestDropoffSource[id]);
+            dropoffSources[id] = sources;
+        }
+    }
 
-        Set<Position> found = new HashSet<>();
-        List<Position> currentLayer = new LinkedList<>();
+    private static void updateNearestEnemyDistance(Game game) {
+        // Finds the distance to the nearest enemy at every square, by searching outwards from enemy ships. With no
+        // enemy ships at all, every square is 0.
+        MultiSourceBfs bfs = bfs(game);
+        if(nearestEnemyDistance == null || nearestEnemyDistance.length != bfs.cells) {
+            nearestEnemyDistance = new int[bfs.cells];
+            nearestEnemySource = new int[bfs.cells];
+        }
+        int[] enemyCells = new int[bfs.cells];
+        int enemies = 0;
         for(Player p : game.players) {
             if(p.equals(game.me)) continue;
-            for(Ship s : p.ships.values()) {
-                found.add(s.position);
-                currentLayer.add(s.position);
-            }
-        }
-        int distance = 1;
-        while(!currentLayer.isEmpty()) {
-            List<Position> nextLayer = new LinkedList<>();
-            for(Position p : currentLayer) {
-                for(Position nbr : CommonFunctions.getNeighbourhood(game.map, p, 1)) {
-                    if(found.contains(nbr)) continue;
-                    found.add(nbr);
-                    nearestEnemyDistance[nbr.x][nbr.y] = distance;
-                    nextLayer.add(nbr);
-                }
-            }
-            currentLayer = nextLayer;
-            distance++;
+            for(Ship s : p.ships.values()) enemyCells[enemies++] = game.map.cell(s.position);
         }
+        bfs.search(enemyCells, enemies, nearestEnemyDistance, nearestEnemySource);
+        if(enemies == 0) Arrays.fill(nearestEnemyDistance, 0);
     }
 
     private static void updateAggressionMaps(Game game) {
         // Update how aggressive we think everyone is. This must be called early in the update process - it relies on
         // the previous turn's collision threshold maps.
+        int cells = game.map.width * game.map.height;
 
         if(game.turnNumber < 2) {
             // Initialise the maps.
-            previousTurnHalite = new int[game.map.height][game.map.width];
+            previousTurnHalite = new int[cells];
 
             // We assume everyone is a wimp. We'll probably get a decent picture before too many collisions!
             moveEmptyAggression = new double[game.players.size()];
@@ -200,42 +339,56 @@ public class MapStatsKeeper {
             moveFullAggression = new double[game.players.size()];
             for(int i = 0; i<game.players.size(); i++) moveFullAggression[i] = -Constants.MAX_HALITE;
         }
+        if(previousShipAt == null || previousShipAt.length != cells) {
+            previousShipAt = new int[cells];
+            deadShipAt = new int[cells];
+            Arrays.fill(previousShipAt, -1);
+            Arrays.fill(deadShipAt, -1);
+        }
         for(int i = 0; i<game.players.size(); i++) {
             if(moveEmptyAggression[i] > 0) moveEmptyAggression[i] *= BotConstants.get().AGGRESSION_DECAY();
         }
-        Map<EntityId, PlayerId> nextPreviousShipOwners = new HashMap<>();
-        Map<EntityId, Position> nextShipsToPositions = new HashMap<>();
-        Map<Position, EntityId> nextPositionsToShips = new HashMap<>();
-        Map<EntityId, Integer> nextPreviousTurnHalites = new HashMap<>();
-        Set<EntityId> nextPreviousShips = new HashSet<>();
-        Set<EntityId> collisionShips = new HashSet<>(previousShips);
-
+        aggressionUpdates++;
+        int shipCount = 0;
+        int maxId = -1;
+        for(Player p : game.players) {
+            shipCount += p.ships.size();
+            for(EntityId shipId : p.ships.keySet()) maxId = Math.max(maxId, shipId.id);
+        }
+        growShipTrackers(maxId + 1);
+        int[] nextPreviousShips = new int[shipCount];
+        int[] nextShipAt = new int[cells];
+        Arrays.fill(nextShipAt, -1);
+        int next = 0;
 
         for(Player p : game.players) {
             for (EntityId shipId : p.ships.keySet()) {
                 Ship ship = p.ships.get(shipId);
-                nextPreviousShips.add(shipId);
-                collisionShips.remove(shipId);
+                int id = shipId.id;
+                boolean seenLastTurn = shipSeenInUpdate[id] == aggressionUpdates - 1;
+                shipSeenInUpdate[id] = aggressionUpdates;
                 // Ignore surrounded ships, because they do crazy stuff.
-                if(previousTurnHalites.containsKey(shipId) && !surrounded.get(shipId)) {
-                    int previousHalite = previousTurnHalites.get(shipId);
+                if(seenLastTurn && !surrounded[id]) {
+                    int previousHalite = previousTurnHalites[id];
 
                     // The maximum halite we judged as wise to make this move. If the square didn't have an enemy turtle
                     // adjacent this will be 2000.
                     double threshold = haliteThreshholdMap[ship.owner.id][ship.position.x][ship.position.y];
                     // This is how much they exceeded a wise move by.
                     double aggression = previousHalite - threshold;
-                    boolean wasMove = !ship.position.equals(previousShipsToPositions.get(shipId));
+                    boolean wasMove = !ship.position.equals(previousShipPositions[id]);
 
                     // We only care about moves. We assume everyone is brave enough to stay still.
                     if(wasMove) {
-                        EntityId previousShip = previousPositionsToShips.get(ship.position);
-                        boolean hadEnemy = previousShip != null && !previousShipOwners.get(previousShip).equals(p.id);
+                        int previousShip = previousShipAt[game.map.cell(ship.position)];
+                        boolean hadEnemy = previousShip >= 0 && previousShipOwners[previousShip] != p.id.id;
                         if(hadEnemy) {
                             // This was a move onto an enemy turtle.
                             if(aggression > moveFullAggression[p.id.id]) {
-                                Logger.info(String.format("Player %d has reached a new aggression %f for moves to enemies", p.id.id, aggression));
-                                Logger.info(String.format("Ship %s moving to %s, threshold %f, halite %d", ship.id, ship.position, threshold, previousTurnHalites.get(shipId)));
+                                if(Logger.enabled(Logger.INFO)) {
+                                    Logger.info("Player %d has reached a new aggression %f for moves to enemies", p.id.id, aggression);
+                                    Logger.info("Ship %s moving to %s, threshold %f, halite %d", ship.id, ship.position, threshold, previousHalite);
+                                }
 
                                 // For moving onto enemy turtles, we are a bit conservative - after the first time a player
                                 // does this, we move their score all the way to 0. This prevents some strings of collisions
@@ -246,54 +399,73 @@ public class MapStatsKeeper {
                         else {
                             // This was a move to an empty square.
                             if(aggression > moveEmptyAggression[p.id.id]) {
-                                Logger.info(String.format("Player %d has reached a new aggression %f for moves to empties", p.id.id, aggression));
-                                Logger.info(String.format("Ship %s moving to %s, threshold %f, halite %d", ship.id, ship.position, threshold, previousTurnHalites.get(shipId)));
+                                if(Logger.enabled(Logger.INFO)) {
+                                    Logger.info("Player %d has reached a new aggression %f for moves to empties", p.id.id, aggression);
+                                    Logger.info("Ship %s moving to %s, threshold %f, halite %d", ship.id, ship.position, threshold, previousHalite);
+                                }
                                 moveEmptyAggression[p.id.id] = aggression;
                             }
                         }
                     }
                 }
-                nextPreviousTurnHalites.put(shipId, ship.halite);
-                nextShipsToPositions.put(shipId, ship.position);
-                nextPositionsToShips.put(ship.position, shipId);
-                surrounded.put(shipId, isSurrounded(game, ship.position, p));
-                nextPreviousShipOwners.put(shipId, p.id);
+                previousTurnHalites[id] = ship.halite;
+                previousShipPositions[id] = ship.position;
+                previousShipOwners[id] = p.id.id;
+                surrounded[id] = isSurrounded(game, ship.position, p);
+                nextPreviousShips[next++] = id;
+                nextShipAt[game.map.cell(ship.position)] = id;
             }
         }
 
-        // We also have to update the aggressions for actual collisions. Detect as many of these as possible.
-        for(EntityId id : collisionShips) {
-            Logger.info(String.format("Investigating the death of ship %s", id));
-            Position pos_1 = previousShipsToPositions.get(id);
-            EntityId culprit = null;
+        // We also have to update the aggressions for actual collisions. Detect as many of these as possible. Ships which
+        // died have kept what we knew about them last turn. We mark where they were, then for each one look for
+        // another which was one or two squares away.
+        int deadShips = 0;
+        for(int id : previousShips) {
+            if(shipSeenInUpdate[id] == aggressionUpdates) continue;
+            Position position = previousShipPositions[id];
+            deadShipAt[game.map.cell(position)] = id;
+            deadShips++;
+        }
+        Neighbourhood collisionRange = Neighbourhood.of(game.map, 2);
+        for(int i=0; i<previousShips.length && deadShips > 0; i++) {
+            int id = previousShips[i];
+            if(shipSeenInUpdate[id] == aggressionUpdates) continue;
+            if(Logger.enabled(Logger.INFO)) Logger.info("Investigating the death of ship %d", id);
+            Position pos_1 = previousShipPositions[id];
+            int culprit = -1;
             boolean found = false;
-            for(EntityId id_2 : collisionShips) {
-                Position pos_2 = previousShipsToPositions.get(id_2);
-                int distance = game.map.calculateDistance(pos_1, pos_2);
-                if(distance > 2 || distance == 0) continue;
+            // Everything but the square itself.
+            for(int k=1; k<collisionRange.size(); k++) {
+                int id_2 = deadShipAt[collisionRange.cell(pos_1, k)];
+                if(id_2 < 0) continue;
                 if(found) {
                     Logger.info("Ambiguous collision - ignoring");
-                    culprit = null;
+                    culprit = -1;
                 }
                 else {
-                    Logger.info(String.format("Found culprit %s", id_2));
+                    if(Logger.enabled(Logger.INFO)) Logger.info("Found culprit %d", id_2);
                     culprit = id_2;
                     found = true;
                 }
             }
-            if(culprit != null) {
-                PlayerId p_1 = previousShipOwners.get(id);
-                PlayerId p_2 = previousShipOwners.get(culprit);
-                if(p_1.equals(p_2)) {
+            if(culprit >= 0) {
+                int p_1 = previousShipOwners[id];
+                int p_2 = previousShipOwners[culprit];
+                if(p_1 == p_2) {
                     Logger.info("Self collision. Well, it's your funeral.");
                     continue;
                 }
                 Position collisionSquare = null;
                 boolean foundSquare = false;
-                for(Position p : CommonFunctions.getNeighbourhood(game.map, previousShipsToPositions.get(culprit), 1)) {
-                    int currentHalite = game.map.at(p).halite;
-                    if(currentHalite > previousTurnHalite[p.x][p.y]) {
-                        Logger.info(String.format("%s has increased in halite - collision site found!", p));
+                Neighbourhood adjacent = Neighbourhood.of(game.map, 1);
+                for(int n=0; n<adjacent.size(); n++) {
+                    Position p = adjacent.position(previousShipPositions[culprit], n);
+                    int currentHalite = game.map.halite[game.map.cell(p)];
+                    if(currentHalite > previousTurnHalite[game.map.cell(p)]) {
+                        if(Logger.enabled(Logger.INFO)) {
+                            Logger.info("%s has increased in halite - collision site found!", p);
+                        }
                         if(foundSquare){
                             Logger.info("Ambiguous site - ignoring");
                             collisionSquare = null;
@@ -306,36 +478,44 @@ public class MapStatsKeeper {
                 }
                 if(collisionSquare != null) {
                     // We have found a collision, and know where it happened. We update the aggression maps as before.
-                    for (EntityId shipId : new EntityId[]{id, culprit}) {
-                        PlayerId p = previousShipOwners.get(shipId);
+                    for (int shipId : new int[]{id, culprit}) {
+                        int p = previousShipOwners[shipId];
                         // Ignore surrounded ships, because they do crazy stuff.
-                        if(previousTurnHalites.containsKey(shipId) && !surrounded.get(shipId)) {
-                            int previousHalite = previousTurnHalites.get(shipId);
-                            double threshold = haliteThreshholdMap[p.id][collisionSquare.x][collisionSquare.y];
+                        if(!surrounded[shipId]) {
+                            int previousHalite = previousTurnHalites[shipId];
+                            double threshold = haliteThreshholdMap[p][collisionSquare.x][collisionSquare.y];
                             // This is how much they exceeded a wise move by.
                             double aggression = previousHalite - threshold;
-                            boolean wasMove = !collisionSquare.equals(previousShipsToPositions.get(shipId));
+                            boolean wasMove = !collisionSquare.equals(previousShipPositions[shipId]);
 
                             if(wasMove) {
-                                EntityId previousShip = previousPositionsToShips.get(collisionSquare);
-                                boolean hadEnemy = previousShip != null && !previousShipOwners.get(previousShip).equals(p);
-                                Logger.info(String.format("Threshold %f, aggression %f, hadEnemy %s", threshold, aggression, hadEnemy));
+                                int previousShip = previousShipAt[game.map.cell(collisionSquare)];
+                                boolean hadEnemy = previousShip >= 0 && previousShipOwners[previousShip] != p;
+                                if(Logger.enabled(Logger.INFO)) {
+                                    Logger.info("Threshold %f, aggression %f, hadEnemy %s", threshold, aggression, hadEnemy);
+                                }
                                 if(hadEnemy) {
-                                    if(aggression > moveFullAggression[p.id]) {
-                                        Logger.info(String.format("Collision - Player %d has reached a new aggression %f for moves to enemies", p.id, aggression));
-                                        Logger.info(String.format("Collision - Ship %s moving to %s, threshold %f, halite %d",
-                                                shipId, collisionSquare, threshold, previousTurnHalites.get(shipId)));
-
-                                        moveFullAggression[p.id] = aggression < 0 ? 0 : aggression;
+                                    if(aggression > moveFullAggression[p]) {
+                                        if(Logger.enabled(Logger.INFO)) {
+                                            Logger.info("Collision - Player %d has reached a new aggression %f for moves to enemies", p, aggression);
+                                            Logger.info("Collision - Ship %d moving to %s, threshold %f, halite %d",
+                                                    shipId, collisionSquare, threshold, previousHalite);
+                                        }
+
+                                        moveFullAggression[p] = aggression < 0 ? 0 : aggression;
                                     }
                                 }
                                 else {
-                                    if(aggression > moveEmptyAggression[p.id]) {
-                                        Logger.info(String.format("Collision - Player %d has reached a new aggression %f for moves to empties", p.id, aggression));
-
-                                        Logger.info(String.format("Collision - Ship %s moving to %s, threshold %f, halite %d",
-                                                shipId, collisionSquare, threshold, previousTurnHalites.get(shipId)));
-                                        moveEmptyAggression[p.id] = aggression;
+                                    if(aggression > moveEmptyAggression[p]) {
+                                        if(Logger.enabled(Logger.INFO)) {
+                                            Logger.info("Collision - Player %d has reached a new aggression %f for moves to empties", p, aggression);
+                                        }
+
+                                        if(Logger.enabled(Logger.INFO)) {
+                                            Logger.info("Collision - Ship %d moving to %s, threshold %f, halite %d",
+                                                    shipId, collisionSquare, threshold, previousHalite);
+                                        }
+                                        moveEmptyAggression[p] = aggression;
                                     }
                                 }
                             }
@@ -344,25 +524,36 @@ public class MapStatsKeeper {
                 }
             }
         }
+        for(int id : previousShips) {
+            if(shipSeenInUpdate[id] == aggressionUpdates) continue;
+            Position position = previousShipPositions[id];
+            deadShipAt[game.map.cell(position)] = -1;
+        }
 
-        previousPositionsToShips = nextPositionsToShips;
-        previousShipsToPositions = nextShipsToPositions;
-        previousTurnHalites = nextPreviousTurnHalites;
-        previousShipOwners = nextPreviousShipOwners;
+        previousShipAt = nextShipAt;
         previousShips = nextPreviousShips;
-        for(int x=0; x< game.map.height; x++) {
-            for(int y=0; y< game.map.height; y++) {
-                previousTurnHalite[x][y] = game.map.cells[x][y].halite;
-            }
-        }
+        System.arraycopy(game.map.halite, 0, previousTurnHalite, 0, cells);
+    }
+
+    private static void growShipTrackers(int ships) {
+        if(ships <= shipSeenInUpdate.length) return;
+        int size = Math.max(ships, 2 * shipSeenInUpdate.length);
+        shipSeenInUpdate = Arrays.copyOf(shipSeenInUpdate, size);
+        previousTurnHalites = Arrays.copyOf(previousTurnHalites, size);
+        previousShipPositions = Arrays.copyOf(previousShipPositions, size);
+        previousShipOwners = Arrays.copyOf(previousShipOwners, size);
+        surrounded = Arrays.copyOf(surrounded, size);
     }
 
     private static boolean isSurrounded(Game game, Position position, Player p) {
-        for(Position nbr : CommonFunctions.getNeighbourhood(game.map, position, 1)) {
-            if(nbr.equals(position)) continue;
+        Neighbourhood adjacent = Neighbourhood.of(game.map, 1);
+        int cell = game.map.cell(position);
+        for(int n=0; n<adjacent.size(); n++) {
+            int nbr = adjacent.cell(cell, n);
+            if(nbr == cell) continue;
             boolean noEnemies = true;
-            for(Position nbr2 : CommonFunctions.getNeighbourhood(game.map, nbr, 1)) {
-                if(CommonFunctions.hasEnemyShip(game, nbr2, p)) noEnemies = false;
+            for(int m=0; m<adjacent.size(); m++) {
+                if(game.map.hasEnemyShip(adjacent.cell(nbr, m), p.id)) noEnemies = false;
             }
             if(noEnemies) return false;
         }
@@ -372,17 +563,19 @@ public class MapStatsKeeper {
     private static Set<Position> calculateEnemyCollisionMap(Game game) {
         // Calculates where the enemy would be happy to collide.
         Set<Position> collisions = new HashSet<>();
+        Neighbourhood adjacent = Neighbourhood.of(game.map, 1);
         for(Player p : game.players) {
             double[][] map = haliteThreshholdMap[p.id.id];
             if(p.id.equals(game.myId)) continue;
             for(Ship s : p.ships.values()) {
                 // We assume everyone will stand their ground.
                 collisions.add(s.position);
-                boolean canMove = CommonFunctions.moveCost(game.map.at(s.position).halite) <= s.halite;
+                boolean canMove = CommonFunctions.moveCost(game.map.halite[game.map.cell(s.position)]) <= s.halite;
 
-                for(Position nbr : CommonFunctions.getNeighbourhood(game.map, s.position, 1)) {
+                for(int n=0; n<adjacent.size(); n++) {
+                    Position nbr = adjacent.position(s.position, n);
                     if(!canMove && !nbr.equals(s.position)) continue;
-                    boolean enemyPresent = CommonFunctions.hasEnemyShip(game, nbr, p);
+                    boolean enemyPresent = game.map.hasEnemyShip(game.map.cell(nbr), p.id);
                     double aggresion = enemyPresent ? moveFullAggression[p.id.id] : moveEmptyAggression[p.id.id];
                     // The enemy will move if their halite is less the correct threshold, plus their (possibly negative)
                     // aggression score, plus a safety margin.
@@ -396,41 +589,43 @@ public class MapStatsKeeper {
     private static double[][] playerHaliteThresholdMap(Game game, Player player) {
         // For a single player, calculates the maxium halite for them to be happy with a collision on each square.
         double[][] haliteThreshholdMap = new double[game.map.width][game.map.height];
+        GameMap map = game.map;
+        Neighbourhood adjacent = Neighbourhood.of(map, 1);
         for(int x=0; x < game.map.height; x++) {
             for (int y = 0; y < game.map.height; y++) {
                 Position pos = Position.getPosition(x, y);
+                int cell = map.cell(x, y);
                 Integer leastSurroundingHalite = null;
 
                 // Find the lowest halite enemy adjacent to the square.
-                for(Position p : CommonFunctions.getNeighbourhood(game.map, pos, 1)) {
-                    if(p.equals(pos)) continue;
-                    if(CommonFunctions.hasEnemyShip(game, p, player)) {
-                        Ship enemy = game.map.at(p).ship;
-                        if(enemy.halite < CommonFunctions.moveCost(game.map.at(p).halite)) continue;
+                for(int n=0; n<adjacent.size(); n++) {
+                    int nbr = adjacent.cell(cell, n);
+                    if(nbr == cell) continue;
+                    if(map.hasEnemyShip(nbr, player.id)) {
+                        if(map.shipHalite[nbr] < CommonFunctions.moveCost(map.halite[nbr])) continue;
                         leastSurroundingHalite = Math.min(
-                                enemy.halite,
+                                map.shipHalite[nbr],
                                 leastSurroundingHalite == null ? Constants.MAX_HALITE : leastSurroundingHalite);
                     }
                 }
 
                 // For stationary enemies, we count their mining this turn into their halite.
-                if(CommonFunctions.hasEnemyShip(game, pos, player)) {
-                    Ship enemy = game.map.at(pos).ship;
-                    boolean inspiration = getInspiration(game, pos, enemy.owner);
-                    Integer amountMined = CommonFunctions.mineAmount(enemy, game.map.at(pos).halite, inspiration);
+                if(map.hasEnemyShip(cell, player.id)) {
+                    boolean inspiration = inspired(cell, map.shipOwner[cell]);
+                    int amountMined = CommonFunctions.mineAmount(map.shipHalite[cell], map.halite[cell], inspiration);
                     leastSurroundingHalite = Math.min(
-                            enemy.halite + amountMined,
+                            map.shipHalite[cell] + amountMined,
                             leastSurroundingHalite == null ? Constants.MAX_HALITE : leastSurroundingHalite);
                 }
 
                 // We can always visit our own dropoffs. They get a threshold of 2000. 2000 is convenient for our
                 // aggression calculations, because it means that even if a 1000 ship moves to this square, the enemy
                 // aggression score stays at -1000.
-                if(game.map.at(pos).hasStructure() && game.map.at(pos).structure.owner.equals(player.id)) {
+                if(map.hasStructure(cell) && map.structureOwner[cell] == player.id.id) {
                     haliteThreshholdMap[pos.x][pos.y] = 2*Constants.MAX_HALITE + 0.5;
                 }
                 else if(leastSurroundingHalite != null) {
-                    if(game.map.at(pos).hasStructure() && !game.map.at(pos).structure.owner.equals(player.id)) {
+                    if(map.hasStructure(cell) && map.structureOwner[cell] != player.id.id) {
                         // Enemy dropoff with adjacent ship - these are never safe to visit.
                         haliteThreshholdMap[pos.x][pos.y] = -1;
                     }
@@ -450,41 +645,87 @@ public class MapStatsKeeper {
         return haliteThreshholdMap;
     }
 
-    private static double getTerritory(Game game, Position pos, Player player) {
+    private static void updateTerritory(Game game) {
         // Control of a square. Roughly the proportion of nearby ships and structures that is owned by the player, with
-        // nearer ones counted exponentially more.
-        double enemies = BotConstants.get().BASE_TERRITORY_WEIGHT();
-        double friends = BotConstants.get().BASE_TERRITORY_WEIGHT();
-        boolean foundFriend = false;
-        boolean foundEnemy = false;
-        for(Position p : CommonFunctions.getNeighbourhood(game.map, pos, BotConstants.get().DROPPED_TERRITORY_RADIUS())) {
-            if(game.map.at(p).hasShip()) {
-                double weight = Math.pow(BotConstants.get().TERRITORY_DROPOFF(), game.map.calculateDistance(p, pos));
-                if(!game.map.at(p).ship.owner.equals(player.id)) {
-                    if(foundEnemy) enemies+=weight;
-                    foundEnemy = true;
-                }
-                else {
-                    if(foundFriend) friends+=weight;
-                    foundFriend = true;
+        // nearer ones counted exponentially more. The nearest friendly ship and the nearest enemy ship don't count.
+        //
+        // Every ship and structure adds its weight to the squares around it, for its owner and as an enemy of everyone
+        // else, and we remember how near the nearest ship of each kind was so we can take it off again afterwards.
+        int radius = BotConstants.get().DROPPED_TERRITORY_RADIUS();
+        int players = game.players.size();
+        int cells = game.map.width * game.map.height;
+        Neighbourhood territoryRange = Neighbourhood.of(game.map, radius);
+        if(territoryWeights == null || territoryWeights.length != radius + 1) territoryWeights = new double[radius + 1];
+        for(int d=0; d<=radius; d++) territoryWeights[d] = Math.pow(BotConstants.get().TERRITORY_DROPOFF(), d);
+        double structureWeight = BotConstants.get().TERRITORY_STRUCTURE_WEIGHT();
+
+        double[][] friendMass = new double[players][cells];
+        double[][] enemyMass = new double[players][cells];
+        int[][] nearestFriend = new int[players][cells];
+        int[][] nearestEnemy = new int[players][cells];
+        for(int i=0; i<players; i++) {
+            Arrays.fill(nearestFriend[i], radius + 1);
+            Arrays.fill(nearestEnemy[i], radius + 1);
+        }
+
+        for(Player owner : game.players) {
+            int id = owner.id.id;
+            List<Entity> structures = new ArrayList<>(owner.dropoffs.values());
+            structures.add(owner.shipyard);
+            for(Entity structure : structures) {
+                for(int i=0; i<territoryRange.size(); i++) {
+                    int distance = territoryRange.distance(i);
+                    int cell = territoryRange.cell(structure.position, i);
+                    double weight = territoryWeights[distance] * structureWeight;
+                    for(int other=0; other<players; other++) {
+                        if(other == id) friendMass[other][cell] += weight;
+                        else enemyMass[other][cell] += weight;
+                    }
                 }
             }
-            if(game.map.at(p).hasStructure()) {
-                double weight = Math.pow(BotConstants.get().TERRITORY_DROPOFF(), game.map.calculateDistance(p, pos)) * BotConstants.get().TERRITORY_STRUCTURE_WEIGHT();
-                if(!game.map.at(p).structure.owner.equals(player.id)) {
-                    enemies+=weight;
-                }
-                else {
-                    friends+=weight;
+            for(Ship ship : owner.ships.values()) {
+                for(int i=0; i<territoryRange.size(); i++) {
+                    int distance = territoryRange.distance(i);
+                    int cell = territoryRange.cell(ship.position, i);
+                    double weight = territoryWeights[distance];
+                    for(int other=0; other<players; other++) {
+                        if(other == id) {
+                            friendMass[other][cell] += weight;
+                            nearestFriend[other][cell] = Math.min(nearestFriend[other][cell], distance);
+                        }
+                        else {
+                            enemyMass[other][cell] += weight;
+                            nearestEnemy[other][cell] = Math.min(nearestEnemy[other][cell], distance);
+                        }
+                    }
                 }
             }
         }
-        return (friends)/(friends+enemies);
+
+        territory = new double[players][cells];
+        double base = BotConstants.get().BASE_TERRITORY_WEIGHT();
+        for(int id=0; id<players; id++) {
+            for(int cell=0; cell<cells; cell++) {
+                double friends = base + friendMass[id][cell];
+                double enemies = base + enemyMass[id][cell];
+                if(nearestFriend[id][cell] <= radius) friends -= territoryWeights[nearestFriend[id][cell]];
+                if(nearestEnemy[id][cell] <= radius) enemies -= territoryWeights[nearestEnemy[id][cell]];
+                territory[id][cell] = friends / (friends + enemies);
+            }
+        }
+    }
+
+    private static double getTerritory(Game game, Position pos, Player player) {
+        return territory[player.id.id][game.map.cell(pos)];
     }
 
     public static boolean getInspiration(Game game, int x, int y, PlayerId owner) {
-        if(game.turnNumber > turnSeen) updateMaps(game);
-        return inspiredMaps[owner.id][x][y];
+        INSPIRATION.ensure(game);
+        return inspired(game.map.cell(x, y), owner.id);
+    }
+
+    private static boolean inspired(int cell, int owner) {
+        return allInspiringShips[cell] - inspiringShips[owner][cell] >= Constants.INSPIRATION_SHIP_COUNT;
     }
 
     public static boolean getInspiration(Game game, Position destination, PlayerId owner) {
@@ -492,7 +733,7 @@ public class MapStatsKeeper {
     }
 
     public static boolean happyWithCollision(Game game, Player player, Position pos, Integer halite, boolean isStationary) {
-        if(game.turnNumber > turnSeen) updateMaps(game);
+        THRESHOLDS.ensure(game);
         // The player is happy to collide if the ship's halite is less than the threshold for this square. We add in a
         // small bonus for staying still.
         int bonus = isStationary ? BotConstants.get().STATIONARY_THRESHOLD_BONUS() : 0;
@@ -502,40 +743,49 @@ public class MapStatsKeeper {
     public static boolean happyWithCollisionFuture(Game game, Position pos, int halite, int turnsInFuture) {
         // Interpolates between the collision threshold now for the square, and a smoothed version, depending on how far
         // in the future we are looking.
-        if(game.turnNumber > turnSeen) updateMaps(game);
+        FUTURE_THRESHOLDS.ensure(game);
         double futureProp = ((double)turnsInFuture) / BotConstants.get().TURNS_TO_FUTURE_PLAN();
         futureProp = futureProp > 1 ? 1.0 : futureProp;
         double thresh = haliteThreshholdMap[game.myId.id][pos.x][pos.y];
         thresh = thresh < 0 ? 0 : thresh;
         thresh = thresh > Constants.MAX_HALITE ? Constants.MAX_HALITE : thresh;
-        return halite <= futureProp*futureThresholdMap[pos.x][pos.y] + (1-futureProp) * thresh;
+        return halite <= futureProp*futureThresholdMap[game.map.cell(pos)] + (1-futureProp) * thresh;
     }
 
-    private static double thresholdFuture(Game game, Player player, int x, int y) {
+    private static void updateFutureThresholdMap(Game game, Player player) {
         // The collision threshold for a square in the far future. This is a weighted average of the nearby thresholds
-        // now, clipped to [0, 1000], with nearby thresholds counting more.
-        double totalThreshold = 0;
-        double totalWeight = 0;
-        Position pos = Position.getPosition(x, y);
-        for(int distance=0; distance<=BotConstants.get().FUTURE_THRESHOLD_RADIUS(); distance++) {
-            double weight = Math.pow(BotConstants.get().FUTURE_THRESHOLD_DROPOFF(), distance);
-            for(int dx = -distance; dx <= distance; dx++) {
-                int dy = distance - Math.abs(dx);
-                Position nbr = pos.withVectorOffset(game.map, dx, dy);
-                totalThreshold += weight * game.map.at(nbr).halite;
-                totalWeight += weight;
-                if(dy != 0) {
-                    dy = -dy;
-                    nbr = pos.withVectorOffset(game.map, dx, dy);
-                    double thresh = haliteThreshholdMap[player.id.id][nbr.x][nbr.y];
-                    thresh = thresh < 0 ? 0 : thresh;
-                    thresh = thresh > Constants.MAX_HALITE ? Constants.MAX_HALITE : thresh;
-                    totalThreshold += weight * thresh;
-                    totalWeight += weight;
+        // now, clipped to [0, 1000], with nearby thresholds counting more. The half of the diamond with dy >= 0 has
+        // always averaged the halite on those squares rather than their thresholds, and still does.
+        //
+        // Almost every square is far from enemies, with a threshold clipped to 1000. So we average 1000 everywhere, then
+        // only add on the difference for the squares which aren't.
+        int radius = BotConstants.get().FUTURE_THRESHOLD_RADIUS();
+        double dropoff = BotConstants.get().FUTURE_THRESHOLD_DROPOFF();
+        if(futureHaliteKernel == null || !futureHaliteKernel.fits(game.map)) {
+            futureHaliteKernel = new DiamondKernel(game.map, radius, dropoff, 0, radius);
+            futureThresholdKernel = new DiamondKernel(game.map, radius, dropoff, -radius, -1);
+        }
+        int cells = game.map.width * game.map.height;
+        double[] halite = new double[cells];
+        for(int cell=0; cell<cells; cell++) halite[cell] = game.map.halite[cell];
+
+        futureThresholdMap = new double[cells];
+        futureHaliteKernel.gather(halite, futureThresholdMap);
+        double[][] thresholds = haliteThreshholdMap[player.id.id];
+        for(int x=0; x<game.map.height; x++) {
+            for(int y=0; y<game.map.width; y++) {
+                double thresh = thresholds[x][y];
+                thresh = thresh < 0 ? 0 : thresh;
+                if(thresh < Constants.MAX_HALITE) {
+                    futureThresholdKernel.scatter(x, y, thresh - Constants.MAX_HALITE, futureThresholdMap);
                 }
             }
         }
-        return totalThreshold / totalWeight;
+        double defaultThresholds = Constants.MAX_HALITE * futureThresholdKernel.totalWeight();
+        double totalWeight = futureHaliteKernel.totalWeight() + futureThresholdKernel.totalWeight();
+        for(int cell=0; cell<cells; cell++) {
+            futureThresholdMap[cell] = (futureThresholdMap[cell] + defaultThresholds) / totalWeight;
+        }
     }
 
     public static boolean canVisit(Game game, Position pos, Ship ship) {
@@ -544,14 +794,14 @@ public class MapStatsKeeper {
 
 
     public static boolean canVisit(Game game, Position pos, int shipHalite, boolean isStationary) {
-        if(game.turnNumber > turnSeen) updateMaps(game);
+        ENEMY_COLLISIONS.ensure(game);
         // We visit this square if we are happy to collide there, or if no enemy is and we are exploiting that.
         return happyWithCollision(game, game.me, pos, shipHalite, isStationary) || (
                 BotConstants.get().EXPLOIT_THE_WEAK() && !enemyHappyWithCollision.contains(pos));
     }
 
     public static boolean canVisitFuture(Game game, Position pos, int shipHalite, int turnNumber) {
-        if(game.turnNumber > turnSeen) updateMaps(game);
+        ENEMY_COLLISIONS.ensure(game);
         // We visit this square if we are happy to collide there, or if no enemy is and we are exploiting that.
         return happyWithCollisionFuture(game, pos, shipHalite, turnNumber) || (
                 BotConstants.get().EXPLOIT_THE_WEAK() && !enemyHappyWithCollision.contains(pos));
@@ -560,16 +810,17 @@ public class MapStatsKeeper {
     public static Position nearestDropoff(
             Position destination, Player player, Game game, Optional<DropoffPlan> plan) {
         int id = player.id.id;
-        if(game.turnNumber > turnSeen) updateMaps(game);
-        int bestDistance = nearestDropoffDistance[id][destination.x][destination.y];
+        DROPOFF_DISTANCES.ensure(game);
+        int cell = game.map.cell(destination);
+        int bestDistance = nearestDropoffDistance[id][cell];
         if(plan.isPresent() && game.map.calculateDistance(destination, plan.get().destination) < bestDistance) return plan.get().destination;
-        return nearestDropoff[id][destination.x][destination.y];
+        return dropoffSources[id][nearestDropoffSource[id][cell]];
     }
 
     public static int nearestDropoffDistance(Position destination, Player player, Game game, Optional<DropoffPlan> plan) {
-        if(game.turnNumber > turnSeen) updateMaps(game);
+        DROPOFF_DISTANCES.ensure(game);
         int id = player.id.id;
-        int bestDistance = nearestDropoffDistance[id][destination.x][destination.y];
+        int bestDistance = nearestDropoffDistance[id][game.map.cell(destination)];
         if(plan.isPresent()) {
             int fakeDist = game.map.calculateDistance(destination, plan.get().destination);
             return fakeDist < bestDistance ? fakeDist : bestDistance;
@@ -594,12 +845,12 @@ public class MapStatsKeeper {
     }
 
     public static int nearestEnemy(Game game, Position p) {
-        if(game.turnNumber > turnSeen) updateMaps(game);
-        return nearestEnemyDistance[p.x][p.y];
+        NEAREST_ENEMY.ensure(game);
+        return nearestEnemyDistance[game.map.cell(p)];
     }
 
     public static int nearestEnemy(Game game, int x, int y) {
-        if(game.turnNumber > turnSeen) updateMaps(game);
-        return nearestEnemyDistance[x][y];
+        NEAREST_ENEMY.ensure(game);
+        return nearestEnemyDistance[x * game.map.width + y];
     }
 }
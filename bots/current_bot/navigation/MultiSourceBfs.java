@@ -0,0 +1,70 @@
+package bots.current_bot.navigation;
+
+import hlt.GameMap;
+
+import java.util.Arrays;
+
+/**
+ * Breadth first search out from several squares at once, finding for every square the distance to the nearest source
+ * and which source that is. Everything is indexed by cell id (x * width + y). When sources tie, the one given first
+ * wins: each layer of the search keeps the squares grouped in the order of the sources they came from.
+ */
+final class MultiSourceBfs {
+    final int width;
+    final int height;
+    final int cells;
+
+    // The four neighbours of every cell, starting at 4 * cell id.
+    private final int[] neighbours;
+    private final int[] queue;
+
+    MultiSourceBfs(GameMap map) {
+        width = map.width;
+        height = map.height;
+        cells = width * height;
+        neighbours = new int[4 * cells];
+        for(int x=0; x<height; x++) {
+            for(int y=0; y<width; y++) {
+                int cell = x * width + y;
+                neighbours[4*cell] = map.normaliseX(x - 1) * width + y;
+                neighbours[4*cell + 1] = x * width + map.normaliseY(y + 1);
+                neighbours[4*cell + 2] = x * width + map.normaliseY(y - 1);
+                neighbours[4*cell + 3] = map.normaliseX(x + 1) * width + y;
+            }
+        }
+        queue = new int[cells];
+    }
+
+    boolean fits(GameMap map) {
+        return map.width == width && map.height == height;
+    }
+
+    /**
+     * Fills in distance and source (an index into sourceCells) for every cell. Squares we can't reach, which only
+     * happens with no sources, get distance -1 and source -1. A source listed twice keeps its first index.
+     */
+    void search(int[] sourceCells, int sourceCount, int[] distance, int[] source) {
+        Arrays.fill(distance, -1);
+        Arrays.fill(source, -1);
+        int head = 0;
+        int tail = 0;
+        for(int i=0; i<sourceCount; i++) {
+            int cell = sourceCells[i];
+            if(distance[cell] >= 0) continue;
+            distance[cell] = 0;
+            source[cell] = i;
+            queue[tail++] = cell;
+        }
+        while(head < tail) {
+            int cell = queue[head++];
+            int nextDistance = distance[cell] + 1;
+            for(int k=4*cell; k<4*cell + 4; k++) {
+                int nbr = neighbours[k];
+                if(distance[nbr] >= 0) continue;
+                distance[nbr] = nextDistance;
+                source[nbr] = source[cell];
+                queue[tail++] = nbr;
+            }
+        }
+    }
+}
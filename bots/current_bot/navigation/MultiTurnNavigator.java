@@ -122,7 +122,7 @@ public class MultiTurnNavigator {
                 turnsAtDest++;
                 plans = newPlans;
             }
-            if(game.turnNumber == 30 && ship.id.id == 0) Logger.info(String.format("Partial plans: %s", plans));
+            if(game.turnNumber == 30 && ship.id.id == 0) Logger.info("Partial plans: %s", plans);
             t++;
         }
 
@@ -168,7 +168,7 @@ public class MultiTurnNavigator {
     public Direction firstMove(Navigation.DirectionTiebreaker tiebreaker) {
         Set<Position> firstTurnOptions = options.get(1);
         Direction bestDirection = null;
-        Logger.info(String.format("Getting first move. Options %s", firstTurnOptions));
+        if(Logger.enabled(Logger.INFO)) Logger.info("Getting first move. Options %s", firstTurnOptions);
         for(Position p : firstTurnOptions) {
             Direction d = ship.position.getDirectionTo(p);
             if(bestDirection == null) {
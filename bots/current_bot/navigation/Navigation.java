@@ -21,12 +21,12 @@ public class Navigation {
             Position position,
             Set<Position> occupiedPositions,
             DirectionTiebreaker tiebreaker) {
-        // Logger.debug(String.format("Navigating for ship %s", ship));
+        // Logger.debug("Navigating for ship %s", ship);
         List<Direction> potentialDirections = game.map.getUnsafeMoves(ship.position, position);
         // Logger.debug(potentialDirections.toString());
         Optional<Direction> bestDirection = Optional.empty();
         for(Direction d : potentialDirections){
-            // Logger.debug(String.format("Trying direction %s", d));
+            // Logger.debug("Trying direction %s", d);
             Position destination = ship.position.directionalOffset(d, game.map);
             if(occupiedPositions.contains(destination)) {
                 // Logger.debug("Already taken");
@@ -51,12 +51,12 @@ public class Navigation {
             Position position,
             Set<Position> occupiedPositions,
             DirectionTiebreaker tiebreaker) {
-        // Logger.debug(String.format("Navigating for ship %s", ship));
+        // Logger.debug("Navigating for ship %s", ship);
         List<Direction> potentialDirections = game.map.getUnsafeMoves(ship.position, position);
         // Logger.debug(potentialDirections.toString());
         Optional<Direction> bestDirection = Optional.empty();
         for(Direction d : potentialDirections){
-            // Logger.debug(String.format("Trying direction %s", d));
+            // Logger.debug("Trying direction %s", d);
             Position destination = ship.position.directionalOffset(d, game.map);
             if(occupiedPositions.contains(destination)) {
                 // Logger.debug("Already taken");
@@ -110,7 +110,7 @@ public class Navigation {
         Optional<Direction> bestDirection = Optional.empty();
         for(Direction d : Direction.ALL_CARDINALS){
             // Try to find a direction which is safe to visit.
-            // Logger.debug(String.format("Trying direction %s", d));
+            // Logger.debug("Trying direction %s", d);
             Position destination = ship.position.directionalOffset(d, game.map);
             if(occupiedPositions.contains(destination)) {
                 // Logger.debug("Already taken");
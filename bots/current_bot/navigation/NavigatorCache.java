@@ -0,0 +1,124 @@
+package bots.current_bot.navigation;
+
+import hlt.Game;
+import hlt.Position;
+import hlt.Ship;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps this turn's multi turn navigators, so asking again whether a ship can get somewhere is usually a lookup.
+ *
+ * A navigator only looks at reservations near the ship: on turn t of its plan, squares at most t away. We record which
+ * of those squares were reserved as a bit pattern, the version of the reservations the navigator saw. A navigator is
+ * reused as long as that version is unchanged, whatever has been reserved elsewhere on the map in the meantime.
+ */
+public class NavigatorCache {
+    // Versions are a long, which covers plans up to three turns long. Longer plans are never cached.
+    private static final int MAX_VERSION_BITS = 64;
+
+    private static final class Entry {
+        final long version;
+        final int maxPlanLength;
+        final MultiTurnNavigator navigator;
+
+        Entry(long version, int maxPlanLength, MultiTurnNavigator navigator) {
+            this.version = version;
+            this.maxPlanLength = maxPlanLength;
+            this.navigator = navigator;
+        }
+    }
+
+    private static int turnSeen = -1;
+    // By ship, then by destination cell and turns to stay there.
+    private static Map<Ship, Map<Long, Entry>> navigators = new HashMap<>();
+
+    // For each turn t of a plan, the squares at most t away, as dx, dy pairs.
+    private static int[][] offsets = new int[0][];
+
+    public static MultiTurnNavigator get(
+            Game game,
+            Ship ship,
+            Position dest,
+            Set<Position> occupiedPositions,
+            Map<Integer, Map<Position, Ship>> futurePlannedPositions,
+            int maxPlanLength,
+            int intendedStayLength) {
+        if(turnSeen != game.turnNumber) {
+            turnSeen = game.turnNumber;
+            navigators = new HashMap<>();
+        }
+        if(offsets.length < maxPlanLength) buildOffsets(maxPlanLength);
+        if(versionBits(maxPlanLength) > MAX_VERSION_BITS) {
+            return new MultiTurnNavigator(
+                    game, ship, dest, occupiedPositions, futurePlannedPositions, maxPlanLength, intendedStayLength);
+        }
+
+        long version = reservationVersion(game, ship, occupiedPositions, futurePlannedPositions, maxPlanLength);
+        long key = ((long) game.map.cell(dest) << 32) | (intendedStayLength & 0xffffffffL);
+        Map<Long, Entry> shipNavigators = navigators.computeIfAbsent(ship, s -> new HashMap<>());
+        Entry entry = shipNavigators.get(key);
+        if(entry == null || entry.version != version || entry.maxPlanLength != maxPlanLength) {
+            entry = new Entry(version, maxPlanLength, new MultiTurnNavigator(
+                    game, ship, dest, occupiedPositions, futurePlannedPositions, maxPlanLength, intendedStayLength));
+            shipNavigators.put(key, entry);
+        }
+        return entry.navigator;
+    }
+
+    private static long reservationVersion(
+            Game game,
+            Ship ship,
+            Set<Position> occupiedPositions,
+            Map<Integer, Map<Position, Ship>> futurePlannedPositions,
+            int maxPlanLength) {
+        // Mirrors what the navigator treats as occupied: everything in occupiedPositions on the first turn, and squares
+        // planned for other ships after that.
+        long version = 0;
+        int bit = 0;
+        for(int t=1; t<=maxPlanLength; t++) {
+            Map<Position, Ship> planned = futurePlannedPositions.get(t);
+            int[] turnOffsets = offsets[t - 1];
+            for(int i=0; i<turnOffsets.length; i+=2) {
+                Position p = Position.getPosition(
+                        game.map.normaliseX(ship.position.x + turnOffsets[i]),
+                        game.map.normaliseY(ship.position.y + turnOffsets[i + 1]));
+                boolean reserved;
+                if(t == 1) {
+                    reserved = occupiedPositions.contains(p);
+                }
+                else {
+                    Ship other = planned == null ? null : planned.get(p);
+                    reserved = other != null && !other.equals(ship);
+                }
+                if(reserved) version |= 1L << bit;
+                bit++;
+            }
+        }
+        return version;
+    }
+
+    private static int versionBits(int maxPlanLength) {
+        int bits = 0;
+        for(int t=1; t<=maxPlanLength; t++) bits += offsets[t - 1].length / 2;
+        return bits;
+    }
+
+    private static void buildOffsets(int maxPlanLength) {
+        offsets = new int[maxPlanLength][];
+        for(int t=1; t<=maxPlanLength; t++) {
+            int[] turnOffsets = new int[2 * (2 * t * t + 2 * t + 1)];
+            int i = 0;
+            for(int dx=-t; dx<=t; dx++) {
+                int span = t - Math.abs(dx);
+                for(int dy=-span; dy<=span; dy++) {
+                    turnOffsets[i++] = dx;
+                    turnOffsets[i++] = dy;
+                }
+            }
+            offsets[t - 1] = turnOffsets;
+        }
+    }
+}
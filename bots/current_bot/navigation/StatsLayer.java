@@ -0,0 +1,84 @@
+package bots.current_bot.navigation;
+
+import bots.current_bot.utils.Logger;
+import hlt.Game;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * One of the maps MapStatsKeeper keeps, worked out at most once a turn, the first time it's asked for. A layer lists the
+ * layers it's calculated from, and if none of them has changed since it was last calculated, it's left as it is.
+ *
+ * At the bottom are inputs, which look at the game itself and say whether the part they cover (ships, halite...) has
+ * changed since they last looked. Every layer has a version, which goes up each time it changes.
+ */
+final class StatsLayer {
+    final String name;
+    private final Predicate<Game> update;
+    private final StatsLayer[] inputs;
+
+    private int turnChecked = -1;
+    private long version = 0;
+    // The versions of our inputs when we were last calculated.
+    private final long[] inputVersions;
+
+    // Time spent calculating this layer, the number of turns it was calculated, and turns it was left as it was.
+    private long totalNanos = 0;
+    private int turnsCalculated = 0;
+    private int turnsSkipped = 0;
+
+    private StatsLayer(String name, Predicate<Game> update, StatsLayer[] inputs) {
+        this.name = name;
+        this.update = update;
+        this.inputs = inputs;
+        inputVersions = new long[inputs.length];
+        for(int i=0; i<inputs.length; i++) inputVersions[i] = -1;
+    }
+
+    /**
+     * A layer which looks at the game. Checking returns whether what it covers has changed.
+     */
+    static StatsLayer input(String name, Predicate<Game> changed) {
+        return new StatsLayer(name, changed, new StatsLayer[0]);
+    }
+
+    /**
+     * A layer calculated from others.
+     */
+    static StatsLayer derived(String name, Consumer<Game> calculate, StatsLayer... inputs) {
+        return new StatsLayer(name, g -> {
+            calculate.accept(g);
+            return true;
+        }, inputs);
+    }
+
+    /**
+     * Brings this layer, and everything it's calculated from, up to date for this turn.
+     */
+    void ensure(Game game) {
+        if(turnChecked == game.turnNumber) return;
+        boolean inputsChanged = inputs.length == 0;
+        for(int i=0; i<inputs.length; i++) {
+            inputs[i].ensure(game);
+            if(inputs[i].version != inputVersions[i]) inputsChanged = true;
+        }
+        if(inputsChanged) {
+            long start = System.nanoTime();
+            if(update.test(game)) version++;
+            long nanos = System.nanoTime() - start;
+            totalNanos += nanos;
+            turnsCalculated++;
+            if(inputs.length > 0) Logger.logtime("%s layer took %.1fms", name, nanos / 1e6);
+            for(int i=0; i<inputs.length; i++) inputVersions[i] = inputs[i].version;
+        }
+        else {
+            turnsSkipped++;
+        }
+        turnChecked = game.turnNumber;
+    }
+
+    String summary() {
+        return String.format("%s %.1fms over %d turns (%d skipped)", name, totalNanos / 1e6, turnsCalculated, turnsSkipped);
+    }
+}
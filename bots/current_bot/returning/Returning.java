@@ -56,7 +56,7 @@ final class SafeRouteMap {
             layer.put(d, new ArrayList<>());
         }
         if(plan.isPresent() && plan.get().underway) {
-            Logger.info(String.format("Dropoff plan underway! Include destination %s for returners.", plan.get().destination));
+            Logger.info("Dropoff plan underway! Include destination %s for returners.", plan.get().destination);
             layer.put(plan.get().destination, new ArrayList<>());
         }
 
@@ -166,7 +166,7 @@ class SquareScore {
     public boolean betterThan(SquareScore other, Boolean queueing, boolean scared) {
         // Avoid other ships being present.
         if(!scared && freeOfShips != other.freeOfShips) return freeOfShips;
-        // Logger.debug(String.format("Comparing %s to %s", direction, other.direction));
+        // Logger.debug("Comparing %s to %s", direction, other.direction);
 
         // Scared means that it's the endgame, and we need to get a shift on.
         if(scared) {
@@ -238,16 +238,6 @@ class SquareScore {
 }
 
 public class Returning {
-    public static double arrayMin(double[][] array) {
-        double min = array[0][0];
-        for(int i = 0; i < array.length; i++) {
-            for (int j=0; j<array[0].length; j++) {
-                if(array[i][j] < min) min = array[i][j];
-            }
-        }
-        return min;
-    }
-
     public static Map<Integer, List<Double>> fixReturningShips(
             Game game,
             Collection<Ship> ships,
@@ -264,7 +254,7 @@ public class Returning {
         SafeRouteMap safeRouteMap = new SafeRouteMap(game, plan, 0, true);
 
         for (Ship ship : ships) {
-            Logger.info(String.format("Consider returning for %s", ship));
+            if(Logger.enabled(Logger.INFO)) Logger.info("Consider returning for %s", ship);
 
             Position nearestDropoff = MapStatsKeeper.nearestDropoff(ship.position, game.me, game, plan);
             int dropoffDistance = MapStatsKeeper.nearestDropoffDistance(ship.position, game.me, game, plan);
@@ -272,24 +262,26 @@ public class Returning {
             boolean rushing;
             if(safeTimeHome.isPresent()) rushing = game.turnsRemaining() < safeTimeHome.get() * BotConstants.get().SAFE_RUSH_FACTOR();
             else rushing = game.turnsRemaining() < BotConstants.get().UNSAFE_RUSH_FACTOR()*dropoffDistance;
-            Logger.info(String.format("Rushing? %s", rushing));
+            if(Logger.enabled(Logger.INFO)) Logger.info("Rushing? %s", rushing);
 
             MapCell cell = game.map.at(ship.position);
 
             boolean onDropoff = cell.hasStructure() && cell.structure.owner.equals(game.me.id);
 
             if(guardShips.containsKey(ship.id) && ship.halite > BotConstants.get().ABANDON_GUARD_DUTY()){
-                Logger.info(String.format("%s has ended up with lots of halite - abandoning its post", ship));
+                if(Logger.enabled(Logger.INFO)) {
+                    Logger.info("%s has ended up with lots of halite - abandoning its post", ship);
+                }
                 guardShips.remove(ship.id);
             }
 
             if(guardShips.containsKey(ship.id)) {
                 // Guard ships don't return home.
-                Logger.info(String.format("Ship %s is guarding", ship));
+                if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s is guarding", ship);
             }
             else if (rushing && !onDropoff) {
                 // Time to come home - the game is nearly over. Should probably check for 0 halite here!
-                Logger.info(String.format("Ship %s rushing home.", ship));
+                if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s rushing home.", ship);
                 returningShipsIds.add(ship.id);
                 rushingShipIds.add(ship.id);
             }
@@ -297,7 +289,7 @@ public class Returning {
                 // Returners continue returning, unless they have reached a dropoff.
                 Logger.info("Ship is currently returning.");
                 if(onDropoff) {
-                    Logger.info(String.format("Ship %s has found dropoff", ship));
+                    if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s has found dropoff", ship);
                     returningShipsIds.remove(ship.id);
                     if(rushingShipIds.contains(ship.id)) {
                         guardShips.put(ship.id, nearestDropoff);
@@ -313,12 +305,12 @@ public class Returning {
             else if(MiningFunctions.turnUpdated == game.turnNumber) {
                 // If we've scored mining this turn, compare the gains we get from continuing to mine with the gains
                 // from coming home.
-                Double bestScore = arrayMin(MiningFunctions.miningScores.get(ship));
+                Double bestScore = MiningFunctions.bestMiningScore(ship);
                 if (dropoffDistance > 0 && ship.halite > 0) {
-                    Logger.info(String.format(
+                    Logger.info(
                             "Ship %s considering banking - turns to fill and home %f, distance %d, halite %d",
                             ship, bestScore, dropoffDistance, ship.halite
-                    ));
+                    );
                     if (ship.halite / dropoffDistance > BotConstants.get().RETURN_RATIO() * Constants.MAX_HALITE / bestScore) {
                         Logger.info("Banking!");
                         returningShipsIds.add(ship.id);
@@ -334,7 +326,7 @@ public class Returning {
                 haliteAtTime.put(expectedReturnTime, haliteAtReturnTime);
             }
             else {
-                Logger.info(String.format("No return condition fulfilled."));
+                Logger.info("No return condition fulfilled.");
             }
         }
         return haliteAtTime;
@@ -353,11 +345,11 @@ public class Returning {
         // Make map for returning routes avoiding squares with enemies.
         SafeRouteMap unsafeRouteMap = new SafeRouteMap(game, plan, 0, false);
 
-        Logger.info(String.format("returning ships %s", returningShipIds));
+        Logger.info("returning ships %s", returningShipIds);
 
         ArrayList<Ship> sortedReturningShips = new ArrayList<>();
         for(Ship ship : moveRegister.getRemainingShips()) {
-            Logger.info(String.format("Considering %s", ship));
+            if(Logger.enabled(Logger.INFO)) Logger.info("Considering %s", ship);
 
             if(returningShipIds.contains(ship.id)) {
                 sortedReturningShips.add(ship);
@@ -366,7 +358,7 @@ public class Returning {
 
         // Sort returning ships by how close they are to a dropoff.
         sortedReturningShips.sort(new ReturnerComparator(game, game.me, safeRouteMap, plan));
-        Logger.info(String.format("Getting moves for %d returning ships", sortedReturningShips.size()));
+        Logger.info("Getting moves for %d returning ships", sortedReturningShips.size());
 
         // Decide whether we are in endgame mode.
         boolean suicideOnDropoff = false;
@@ -385,19 +377,19 @@ public class Returning {
     private static void getReturningMove(
             Game game, Ship ship, MoveRegister moveRegister, SafeRouteMap safeRouteMap, SafeRouteMap unsafeRouteMap, boolean suicideOnDropoff, boolean rushOn,
             Optional<DropoffPlan> plan, int exceptionalHaliteNeeded) {
-        Logger.info(String.format("Get returner direction for %s", ship));
+        if(Logger.enabled(Logger.INFO)) Logger.info("Get returner direction for %s", ship);
         Integer currentSquareHalite = game.map.at(ship.position).halite;
 
         Position dropoff = MapStatsKeeper.nearestDropoff(ship.position, game.me, game, plan);
         int dropoffDistance = MapStatsKeeper.nearestDropoffDistance(ship.position, game.me, game, plan);
-        Logger.info(String.format("Distance %d from nearest dropoff.", dropoffDistance));
+        if(Logger.enabled(Logger.INFO)) Logger.info("Distance %d from nearest dropoff.", dropoffDistance);
 
         if(dropoffDistance == 0) {
             // On a dropoff.
-            Logger.info(String.format("Ship %s is on dropoff, but marked returning.", ship));
+            if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s is on dropoff, but marked returning.", ship);
             if(suicideOnDropoff) {
                 // Waiting for death
-                Logger.info(String.format("Ship %s staying on dropoff.", ship));
+                if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s staying on dropoff.", ship);
                 moveRegister.registerMove(ship, Direction.STILL);
                 moveRegister.registerPossibleCollision(dropoff);
                 return;
@@ -411,14 +403,16 @@ public class Returning {
             else {
                 // This is a planned dropoff! Ship should create dropoff if possible.
                 if(game.me.halite + ship.halite + game.map.at(ship.position).halite >= Constants.DROPOFF_COST + exceptionalHaliteNeeded) {
-                    Logger.info(String.format("Ship %s making dropoff!", ship));
+                    if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s making dropoff!", ship);
 
                     moveRegister.registerDropoff(ship);
                     plan.get().haliteNeeded = Constants.DROPOFF_COST - ship.halite - game.map.at(ship.position).halite;
                     return;
                 }
                 else {
-                    Logger.info(String.format("Ship %s arrived to create dropoff, but doesn't have enough halite", ship));
+                    if(Logger.enabled(Logger.INFO)) {
+                        Logger.info("Ship %s arrived to create dropoff, but doesn't have enough halite", ship);
+                    }
                     moveRegister.registerMove(ship, Direction.STILL);
                     return;
                 }
@@ -433,8 +427,10 @@ public class Returning {
         double turnValueAfterReturn = Constants.MAX_HALITE / MiningFunctions.dropoffMiningValue.getOrDefault(dropoff, 1000.0);
         if(gainByStaying * BotConstants.get().STAYING_RETURN_WEIGHT() > turnValueAfterReturn && !rushOn) {
             // We stay and mine if the gain from doing so is greater than the value of a turn after we return.
-            Logger.info(String.format("Stay gain %s greater than turn value %s",
-                    gainByStaying, turnValueAfterReturn));
+            if(Logger.enabled(Logger.INFO)) {
+                Logger.info("Stay gain %s greater than turn value %s",
+                        gainByStaying, turnValueAfterReturn);
+            }
             Optional<Direction> direction = Navigation.navigateLowHaliteDefaultSafety(
                     game, ship, ship.position, moveRegister.getOccupiedPositions());
             if(direction.isPresent()) {
@@ -449,10 +445,12 @@ public class Returning {
         if(suicideOnDropoff) {
             if(dropoffDistance == 1) {
                 // Allow self-collisions on dropoffs at the end.
-                Logger.info(String.format("Ship %s going in, whether or not dropoff is occupied.", ship));
-                Logger.info(String.format("Dropoff %s.", dropoff));
+                if(Logger.enabled(Logger.INFO)) {
+                    Logger.info("Ship %s going in, whether or not dropoff is occupied.", ship);
+                    Logger.info("Dropoff %s.", dropoff);
+                }
                 Direction d = game.map.getUnsafeMoves(ship.position, dropoff).get(0);
-                Logger.info(String.format("Direction %s.", d));
+                if(Logger.enabled(Logger.INFO)) Logger.info("Direction %s.", d);
                 moveRegister.registerMove(ship, d);
                 moveRegister.registerPossibleCollision(dropoff);
                 return;
@@ -470,12 +468,12 @@ public class Returning {
         for(Direction d : Direction.ALL_CARDINALS) {
             Position dest = ship.position.directionalOffset(d, game.map);
             if(moveRegister.getOccupiedPositions().contains(dest)) {
-                Logger.info(String.format("Occupied %s", dest));
+                if(Logger.enabled(Logger.INFO)) Logger.info("Occupied %s", dest);
                 if (safeRouteMap.safeDistance(dest).isPresent()) {
                     Integer safeDistance = safeRouteMap.safeDistance(dest).get();
-                    Logger.info(String.format("Safe distance %d, ours %d", safeDistance, ourDistance));
+                    if(Logger.enabled(Logger.INFO)) Logger.info("Safe distance %d, ours %d", safeDistance, ourDistance);
                     if (safeDistance < ourDistance) {
-                        Logger.info(String.format("Queueing to get to %s", dest));
+                        if(Logger.enabled(Logger.INFO)) Logger.info("Queueing to get to %s", dest);
                         queueing = true;
                     }
                 }
@@ -484,8 +482,8 @@ public class Returning {
                 options.add(new SquareScore(ship, game, d, safeRouteMap, unsafeRouteMap, plan));
             }
         }
-        // Logger.debug(String.format("Queueing? %s", queueing));
-        Logger.info(String.format("Ship %s options: %s", ship, options));
+        // Logger.debug("Queueing? %s", queueing);
+        if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s options: %s", ship, options);
         boolean scared = game.turnsRemaining() <= dropoffDistance + BotConstants.get().RETURN_SAFETY_MARGIN();
 
         // Compare our options.
@@ -496,14 +494,14 @@ public class Returning {
             }
             else {
                 if(score.betterThan(bestOption.get(), queueing, scared)) {
-                    // Logger.debug(String.format("New best option %s", score.direction));
+                    // Logger.debug("New best option %s", score.direction);
                     bestOption = Optional.of(score);
                 }
             }
         }
 
         if(!bestOption.isPresent()) {
-            Logger.warn(String.format("Returning ship %s found no possible directions!", ship));
+            if(Logger.enabled(Logger.WARN)) Logger.warn("Returning ship %s found no possible directions!", ship);
             moveRegister.registerMove(ship, Direction.STILL);
         }
         else {
@@ -24,13 +24,13 @@ public class SpawnDecider {
             if(p.equals(game.me)) continue;
             for(Ship s : p.ships.values()) {
                 if(!enemyShipIds.contains(s.id)) {
-                    Logger.info(String.format("Found a new enemy ship %s!", s));
+                    if(Logger.enabled(Logger.INFO)) Logger.info("Found a new enemy ship %s!", s);
                     turnsSinceLastEnemySpawn = 0;
                     enemyShipIds.add(s.id);
                 }
             }
         }
-        Logger.info(String.format("Turn since last enemy spawn: %d", turnsSinceLastEnemySpawn));
+        Logger.info("Turn since last enemy spawn: %d", turnsSinceLastEnemySpawn);
 
 
         if (game.turnNumber > Constants.MAX_TURNS * BotConstants.get().MAX_SPAWN_TURNS()){
@@ -61,7 +61,7 @@ public class SpawnDecider {
                 p -> !p.equals(game.me)).map(
                 p -> p.ships.size()).max(
                 Comparator.<Integer>naturalOrder()).get();
-        Logger.info(String.format("Our ships %d, min ships %d, max ships %d", ourShips, minShips,maxShips));
+        Logger.info("Our ships %d, min ships %d, max ships %d", ourShips, minShips,maxShips);
         boolean enemySpawning = turnsSinceLastEnemySpawn < BotConstants.get().ENEMY_SPAWN_TURNS();
         // Catch up with the lowest opponent count if necessary.
         if(!runningLocally && ourShips * BotConstants.get().SHIP_DEFICIT_BUILD() <= minShips && enemySpawning){
@@ -90,11 +90,11 @@ public class SpawnDecider {
 
             // Calculate halite left per ship, adjusting it for how much inspiration we expect on this map size.
             shipValue = BotConstants.get().SPAWN_INSPIRATION_BONUS() * (haliteRemaining - finalHalite) / shipsAlive;
-            Logger.info(String.format("Halite remaining per ship %f (%d-%f)/%d)",
+            Logger.info("Halite remaining per ship %f (%d-%f)/%d)",
                     shipValue,
                     haliteRemaining,
                     finalHalite,
-                    shipsAlive));
+                    shipsAlive);
             if(shipValue < Constants.SHIP_COST){
                 Logger.info("Not spawning - not enough halite left");
                 spawnedLast = false;
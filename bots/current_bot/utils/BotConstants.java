@@ -101,12 +101,61 @@ public abstract class BotConstants {
 
     // Constants from here are not expected to be changed in normal operation.
 
-    // Milliseconds for calculating mining scores. This is (at time of writing) the only significant per-ship work, and
-    // everything else is pretty quick.
+    // Milliseconds we allow ourselves per turn, out of the 2 seconds the game gives us. Split up by TurnScheduler.
+    public int TURN_TIME() {
+        return 1900;
+    }
+
+    // Milliseconds budgeted for each of the small phases of the turn. Mining scores get whatever is left over.
+    public int PHASE_TIME() {
+        return 10;
+    }
+
+    // How far behind schedule, in milliseconds, before we skip hunting. Exceptional squares go at twice this, and
+    // dropoff replanning at three times.
+    public int LATE_SKIP_TIME() {
+        return 50;
+    }
+
+    // Most milliseconds for calculating mining scores. This is (at time of writing) the only significant per-ship work,
+    // and everything else is pretty quick.
     public int MINING_SCORE_TIME() {
         return 1700;
     }
 
+    // Threads for calculating mining scores. With one thread, ships are scored one after another on the main thread.
+    // More threads change how the online time budget is shared out, so this stays at one until it's been compared.
+    public int MINING_THREADS() {
+        return 1;
+    }
+
+    // Milliseconds after the mining scores for refreshing the imaginary ships at dropoffs. Past this, dropoffs keep
+    // their last scores. Not used when running on a fixed iteration budget.
+    public int DROPOFF_SCORE_TIME() {
+        return 100;
+    }
+
+    // Milliseconds budgeted for ships to claim mining squares, across all rounds of mining commands. Not used when
+    // running on a fixed iteration budget.
+    public int CLAIM_TIME() {
+        return 100;
+    }
+
+    // Most looks at ships' squares while claiming, per round of mining commands.
+    public int CLAIM_ITERATIONS() {
+        return 5000;
+    }
+
+    // Flag for claiming squares with an auction (AuctionClaims) instead of by distance (NearestShipClaims).
+    public int CLAIM_AUCTION() {
+        return 0;
+    }
+
+    // Smallest bid increment in a claim auction, in units of mining score.
+    public double CLAIM_AUCTION_EPSILON() {
+        return 0.001;
+    }
+
     // Local flag for using the "Total iterations" setting.
     public int USE_TOTAL_ITERATIONS() {
         return 1;
@@ -5,6 +5,10 @@ import java.util.Optional;
 
 public class BotConstantsArgs extends BotConstants {
     private Optional<Integer> iterationsAllowed = Optional.empty();
+    private Optional<Integer> miningThreads = Optional.empty();
+    private Optional<Integer> claimIterations = Optional.empty();
+    private Optional<Integer> claimAuction = Optional.empty();
+    private Optional<Integer> turnTime = Optional.empty();
     private BotConstants baseConfig;
 
     private Optional<Integer> aggroPlayers = Optional.empty();
@@ -68,6 +72,18 @@ public class BotConstantsArgs extends BotConstants {
                 case "ITERATIONS_ALLOWED":
                     iterationsAllowed = Optional.of(Integer.parseInt(args.get(key)));
                     break;
+                case "MINING_THREADS":
+                    miningThreads = Optional.of(Integer.parseInt(args.get(key)));
+                    break;
+                case "CLAIM_ITERATIONS":
+                    claimIterations = Optional.of(Integer.parseInt(args.get(key)));
+                    break;
+                case "CLAIM_AUCTION":
+                    claimAuction = Optional.of(Integer.parseInt(args.get(key)));
+                    break;
+                case "TURN_TIME":
+                    turnTime = Optional.of(Integer.parseInt(args.get(key)));
+                    break;
                 case "INSPIRATION_TURN_DROPOFF":
                     inspirationTurnDropoff = Optional.of(Double.parseDouble(args.get(key)));
                     break;
@@ -263,4 +279,24 @@ public class BotConstantsArgs extends BotConstants {
         return iterationsAllowed.orElse(baseConfig.ITERATIONS_ALLOWED());
     }
 
+    @Override
+    public int MINING_THREADS() {
+        return miningThreads.orElse(baseConfig.MINING_THREADS());
+    }
+
+    @Override
+    public int CLAIM_ITERATIONS() {
+        return claimIterations.orElse(baseConfig.CLAIM_ITERATIONS());
+    }
+
+    @Override
+    public int CLAIM_AUCTION() {
+        return claimAuction.orElse(baseConfig.CLAIM_AUCTION());
+    }
+
+    @Override
+    public int TURN_TIME() {
+        return turnTime.orElse(baseConfig.TURN_TIME());
+    }
+
 }
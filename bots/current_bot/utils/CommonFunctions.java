@@ -1,6 +1,7 @@
 package bots.current_bot.utils;
 
 import bots.current_bot.dropoffs.DropoffPlan;
+import bots.current_bot.navigation.MapStatsKeeper;
 import hlt.*;
 
 import java.util.*;
@@ -14,7 +15,7 @@ public class CommonFunctions {
         Set<EntityId> ships = new HashSet<>();
         for(Ship ship : moveRegister.getRemainingShips()) {
             if(ship.halite < map.at(ship).halite / Constants.MOVE_COST_RATIO) {
-                Logger.info(String.format("Ship %s forced to stay", ship));
+                if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s forced to stay", ship);
                 moveRegister.registerMove(ship, Direction.STILL);
                 ships.add(ship.id);
             }
@@ -23,27 +24,13 @@ public class CommonFunctions {
     }
 
 
-    public static List<Position> getNeighbourhood(GameMap map, Position position, int distance) {
-        List<Position> neighbourhood = new ArrayList<>();
-        for(int sum=0; sum<=distance; sum++) {
-            for(int x=-sum; x<=sum; x++) {
-                int y = sum - Math.abs(x);
-                neighbourhood.add(position.withVectorOffset(map, x, y));
-                if(y != 0) {
-                    neighbourhood.add(position.withVectorOffset(map, x, -y));
-                }
-            }
-        }
-        return neighbourhood;
-    }
-
     public static Integer mineAmount(Ship ship, int halite) {
         return Math.min(
                 (halite + Constants.EXTRACT_RATIO - 1) / Constants.EXTRACT_RATIO,
                 Constants.MAX_HALITE - ship.halite);
     }
 
-    public static Integer mineAmount(int shipHalite, int halite) {
+    public static int mineAmount(int shipHalite, int halite) {
         return Math.min(
                 (halite + Constants.EXTRACT_RATIO - 1) / Constants.EXTRACT_RATIO,
                 Constants.MAX_HALITE - shipHalite);
@@ -58,7 +45,7 @@ public class CommonFunctions {
     }
 
     public static boolean hasFriendlyShip(Game game, Position position) {
-        return game.map.at(position).hasShip() && game.map.at(position).ship.owner.equals(game.me.id);
+        return game.map.shipOwner[game.map.cell(position)] == game.me.id.id;
     }
 
     public static int moveCost(int halite) {
@@ -68,7 +55,9 @@ public class CommonFunctions {
 
     public static List<Ship> ourShipsNearby(Game game, Position position, Integer radius) {
         List<Ship> ourShips = new ArrayList<>();
-        for(Position p : getNeighbourhood(game.map, position, radius)) {
+        Neighbourhood around = Neighbourhood.of(game.map, radius);
+        for(int n=0; n<around.size(); n++) {
+            Position p = around.position(position, n);
             if(hasFriendlyShip(game, p)) {
                 ourShips.add(game.map.at(p).ship);
             }
@@ -85,16 +74,20 @@ public class CommonFunctions {
     }
 
     public static Integer mineAmount(Ship ship, int halite, boolean inspiration) {
-        if(!inspiration) return mineAmount(ship, halite);
+        return mineAmount(ship.halite, halite, inspiration);
+    }
+
+    public static int mineAmount(int shipHalite, int halite, boolean inspiration) {
+        if(!inspiration) return mineAmount(shipHalite, halite);
         else {
             int extractAmount = (halite + Constants.EXTRACT_RATIO - 1) / Constants.EXTRACT_RATIO;
             extractAmount += (int)(extractAmount*Constants.INSPIRED_BONUS_MULTIPLIER);
-            return Math.min(Constants.MAX_HALITE - ship.halite, extractAmount);
+            return Math.min(Constants.MAX_HALITE - shipHalite, extractAmount);
         }
     }
 
     public static boolean hasEnemyShip(Game game, Position position, Player player) {
-        return game.map.at(position).hasShip() && !game.map.at(position).ship.owner.equals(player.id);
+        return game.map.hasEnemyShip(game.map.cell(position), player.id);
     }
 
     public static boolean hasEnemyShip(Game game, Position position) {
@@ -102,20 +95,11 @@ public class CommonFunctions {
     }
 
     public static double haliteNearby(Game game, Position position, Integer distance, double dropoff) {
-        double halite = 0;
-        for(int sum=0; sum<=distance; sum++) {
-            for(int x=-sum; x<=sum; x++) {
-                int y = sum - Math.abs(x);
-                halite += game.map.at(position.withVectorOffset(game.map, x, y)).halite * Math.pow(dropoff, distance);
-                if(y != 0) {
-                    halite += game.map.at(position.withVectorOffset(game.map, x, -y)).halite * Math.pow(dropoff, distance);
-                }
-            }
-        }
-        return halite;
+        // Every square gets the same weight, dropoff^distance. The prefix sums in MapStatsKeeper give us the total.
+        return MapStatsKeeper.haliteWithin(game, position, distance) * Math.pow(dropoff, distance);
     }
 
     public static boolean hasFriendlyStructure(Game game, Position position) {
-        return game.map.at(position).hasStructure() && game.map.at(position).structure.owner.equals(game.myId);
+        return game.map.structureOwner[game.map.cell(position)] == game.myId.id;
     }
 }
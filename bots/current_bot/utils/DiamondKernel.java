@@ -0,0 +1,93 @@
+package bots.current_bot.utils;
+
+import hlt.GameMap;
+
+/**
+ * A weighted sum over a diamond (squares within some Manhattan distance) on the wrapped map, with a square at distance d
+ * weighted dropoff^d. The kernel can be cut down to the rows of the diamond with dy in [minDy, maxDy]. Maps are flat
+ * arrays indexed by cell id (x * width + y), and the wrapped row and column indices for every offset are worked out
+ * once, so applying the kernel is just array lookups.
+ */
+public final class DiamondKernel {
+    private final int width;
+    private final int height;
+    private final double[] weights;
+    private final double totalWeight;
+    // For offset k and row x, the cell id of the start of row x + dx (and x - dx), and for column y, y + dy (and y - dy).
+    private final int[][] rowsAhead;
+    private final int[][] rowsBehind;
+    private final int[][] columnsAhead;
+    private final int[][] columnsBehind;
+
+    public DiamondKernel(GameMap map, int radius, double dropoff, int minDy, int maxDy) {
+        width = map.width;
+        height = map.height;
+        int size = 0;
+        for(int dx=-radius; dx<=radius; dx++) {
+            int span = radius - Math.abs(dx);
+            for(int dy=-span; dy<=span; dy++) if(dy >= minDy && dy <= maxDy) size++;
+        }
+        weights = new double[size];
+        rowsAhead = new int[size][height];
+        rowsBehind = new int[size][height];
+        columnsAhead = new int[size][width];
+        columnsBehind = new int[size][width];
+
+        double total = 0;
+        int k = 0;
+        for(int dx=-radius; dx<=radius; dx++) {
+            int span = radius - Math.abs(dx);
+            for(int dy=-span; dy<=span; dy++) {
+                if(dy < minDy || dy > maxDy) continue;
+                weights[k] = Math.pow(dropoff, Math.abs(dx) + Math.abs(dy));
+                total += weights[k];
+                for(int x=0; x<height; x++) {
+                    rowsAhead[k][x] = map.normaliseX(x + dx) * width;
+                    rowsBehind[k][x] = map.normaliseX(x - dx) * width;
+                }
+                for(int y=0; y<width; y++) {
+                    columnsAhead[k][y] = map.normaliseY(y + dy);
+                    columnsBehind[k][y] = map.normaliseY(y - dy);
+                }
+                k++;
+            }
+        }
+        totalWeight = total;
+    }
+
+    public boolean fits(GameMap map) {
+        return map.width == width && map.height == height;
+    }
+
+    /**
+     * Sum of the weights, which is what applying the kernel to a map of ones gives at every square.
+     */
+    public double totalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * Adds the weighted sum of in around every square to out.
+     */
+    public void gather(double[] in, double[] out) {
+        for(int k=0; k<weights.length; k++) {
+            double weight = weights[k];
+            int[] columns = columnsAhead[k];
+            for(int x=0; x<height; x++) {
+                int row = rowsAhead[k][x];
+                int outCell = x * width;
+                for(int y=0; y<width; y++) out[outCell + y] += weight * in[row + columns[y]];
+            }
+        }
+    }
+
+    /**
+     * Adds what a value at (x, y) contributes to gather at every square around it. Gathering a map which is zero
+     * almost everywhere is quicker done by scattering the few squares which aren't.
+     */
+    public void scatter(int x, int y, double value, double[] out) {
+        for(int k=0; k<weights.length; k++) {
+            out[rowsBehind[k][x] + columnsBehind[k][y]] += weights[k] * value;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package bots.current_bot.utils;
+
+import hlt.GameMap;
+
+/**
+ * Sums of halite over diamonds (squares within some Manhattan distance) on the wrapped map, in constant time per query.
+ *
+ * Turned 45 degrees, with u = x + y and v = x - y, a diamond is an ordinary rectangle, so we lay the map out on a
+ * rotated grid (leaving the squares in between empty) and keep 2D prefix sums of that. To deal with wrapping, the map
+ * is first padded on every side with maxRadius squares copied from the other side. Building is linear in the size of
+ * the padded map.
+ */
+public final class DiamondSums {
+    private final int maxRadius;
+    private final int paddedWidth;
+    // Side of the rotated grid, plus one for the row and column of zeros the prefix sums start from.
+    private final int side;
+    private final long[] prefix;
+
+    public DiamondSums(GameMap map, int maxRadius) {
+        this.maxRadius = maxRadius;
+        int paddedHeight = map.height + 2 * maxRadius;
+        paddedWidth = map.width + 2 * maxRadius;
+        side = paddedHeight + paddedWidth;
+        prefix = new long[side * side];
+
+        for(int i=0; i<paddedHeight; i++) {
+            int x = Math.floorMod(i - maxRadius, map.height);
+            for(int j=0; j<paddedWidth; j++) {
+                int y = Math.floorMod(j - maxRadius, map.width);
+                prefix[(i + j + 1) * side + (i - j + paddedWidth)] = map.cells[x][y].halite;
+            }
+        }
+        for(int u=1; u<side; u++) {
+            for(int v=1; v<side; v++) {
+                prefix[u * side + v] += prefix[(u - 1) * side + v] + prefix[u * side + v - 1] - prefix[(u - 1) * side + v - 1];
+            }
+        }
+    }
+
+    public int maxRadius() {
+        return maxRadius;
+    }
+
+    /**
+     * Total halite on squares at most radius from (x, y), including (x, y) itself. Squares the diamond reaches more than
+     * once, on small maps, count each time.
+     */
+    public long sum(int x, int y, int radius) {
+        if(radius > maxRadius) throw new IllegalArgumentException(
+                String.format("Radius %d is more than the %d we padded for", radius, maxRadius));
+        int i = x + maxRadius;
+        int j = y + maxRadius;
+        int u = i + j + 1;
+        int v = i - j + paddedWidth;
+        int uLow = u - radius - 1;
+        int uHigh = u + radius;
+        int vLow = v - radius - 1;
+        int vHigh = v + radius;
+        return prefix[uHigh * side + vHigh] - prefix[uLow * side + vHigh]
+                - prefix[uHigh * side + vLow] + prefix[uLow * side + vLow];
+    }
+}
@@ -2,24 +2,46 @@ package bots.current_bot.utils;
 
 import hlt.Log;
 
+import java.util.function.Supplier;
+
 public class Logger {
 
     public static final int NONE = 4;
-    public static int DEBUG = 0;
-    public static int INFO = 1;
-    public static int WARN = 2;
-    public static int ERROR = 3;
+    public static final int DEBUG = 0;
+    public static final int INFO = 1;
+    public static final int WARN = 2;
+    public static final int ERROR = 3;
     public static int level;
     public static boolean log_time;
     public static long startTime;
 
 
-    private static void log(String s, Integer log_level) {
+    private static void log(String s, int log_level) {
         if(log_level >= level) {
             Log.log(s);
         }
     }
 
+    // The overloads taking a format and its arguments, or a supplier, only build the message once we know it'll be
+    // logged. We normally run with logging off, so anything beyond a constant string should go through these. The
+    // argument array and any boxing still happen before the check, so calls made per ship or per claim go inside
+    // if(Logger.enabled(...)), and the bare template calls are only for messages logged once a turn.
+    public static boolean enabled(int log_level) {
+        return log_level >= level;
+    }
+
+    private static void log(String prefix, int log_level, String format, Object[] args) {
+        if(log_level >= level) {
+            Log.log(prefix + String.format(format, args));
+        }
+    }
+
+    private static void log(String prefix, int log_level, Supplier<String> message) {
+        if(log_level >= level) {
+            Log.log(prefix + message.get());
+        }
+    }
+
     public static void error(Exception e) {
         if(Logger.level <= Logger.ERROR) {
             String message = e.getMessage();
@@ -37,20 +59,50 @@ public class Logger {
         log("WARN:  " + s, WARN);
     }
 
+    public static void warn(String format, Object... args) {
+        log("WARN:  ", WARN, format, args);
+    }
+
+    public static void warn(Supplier<String> message) {
+        log("WARN:  ", WARN, message);
+    }
+
 
     public static void info(String s) {
         log("INFO:  " + s, INFO);
     }
 
+    public static void info(String format, Object... args) {
+        log("INFO:  ", INFO, format, args);
+    }
+
+    public static void info(Supplier<String> message) {
+        log("INFO:  ", INFO, message);
+    }
+
 
     public static void debug(String s) {
         log("DEBUG: " + s, DEBUG);
     }
 
+    public static void debug(String format, Object... args) {
+        log("DEBUG: ", DEBUG, format, args);
+    }
+
+    public static void debug(Supplier<String> message) {
+        log("DEBUG: ", DEBUG, message);
+    }
+
     public static void logtime(String s) {
         if(log_time) {
             long time = (System.currentTimeMillis() - startTime);
             Log.log(s + ": time " + time);
         }
     }
+
+    public static void logtime(String format, Object... args) {
+        if(log_time) {
+            logtime(String.format(format, args));
+        }
+    }
 }
@@ -56,7 +56,7 @@ public class MoveRegister {
             // We only worry about ships which aren't happy to stay put. Actually, this is probably wrong - if a ship's
             // square gets taken, it should be tracked like this.
             if(!MapStatsKeeper.canVisit(game, s.position, s)) {
-                Logger.info(String.format("Ship %s needs to move if possible", s));
+                if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s needs to move if possible", s);
                 List<Direction> legalMoves = new ArrayList<>();
                 for (Direction d : Direction.ALL_CARDINALS) {
                     Position p = s.position.directionalOffset(d, game.map);
@@ -95,18 +95,24 @@ public class MoveRegister {
             // This can happen when a ship on a dropoff gets a forced move before it makes its own decision.
             if(!forcedMoves.contains(ship)) throw new IllegalArgumentException("Attempted to issue duplicate" +
                     String.format("command to ship not forced to move %s.", ship));
-            Logger.warn(String.format("Attempted to issue duplicate command to ship %s on forced to move - ignoring", ship));
+            if(Logger.enabled(Logger.WARN)) {
+                Logger.warn("Attempted to issue duplicate command to ship %s on forced to move - ignoring", ship);
+            }
 
             return;
         }
         ShipCommand command = ShipCommand.move(game.map, ship, direction);
         if(getOccupiedPositions().contains(command.destination)) {
-            Logger.warn(String.format("Position %s already occupied while getting command for %s direction %s!",
-                    command.destination, ship, direction));
+            if(Logger.enabled(Logger.WARN)) {
+                Logger.warn("Position %s already occupied while getting command for %s direction %s!",
+                        command.destination, ship, direction);
+            }
         }
 
-        Logger.info(String.format("Moving %s to %s",
-                ship, command.destination));
+        if(Logger.enabled(Logger.INFO)) {
+            Logger.info("Moving %s to %s",
+                    ship, command.destination);
+        }
         getOccupiedPositions().add(command.destination);
 
         remainingShips.remove(ship);
@@ -133,7 +139,7 @@ public class MoveRegister {
                 if(!remainingShips.contains(s)) continue;
                 shouldMoveShips.get(s).removeIf(d -> s.position.directionalOffset(d, game.map).equals(command.destination));
                 if(shouldMoveShips.get(s).size() == 1) {
-                    Logger.info(String.format("Should move ship %s has one square left!", s));
+                    if(Logger.enabled(Logger.INFO)) Logger.info("Should move ship %s has one square left!", s);
                     Direction d = shouldMoveShips.get(s).get(0);
                     Position dest = s.position.directionalOffset(d, game.map);
                     if(occupiedPositions.contains(dest)) {
@@ -155,7 +161,7 @@ public class MoveRegister {
         if(remainingMoves.size() != 1) return;
         Ship mustMoveShip = game.map.at(p).ship;
         if(remainingShips.contains(mustMoveShip)) {
-            Logger.info(String.format("Ship %s needs to move!", mustMoveShip));
+            if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s needs to move!", mustMoveShip);
             Direction forcedDir = remainingMoves.get(0);
             forcedMoves.add(mustMoveShip);
             registerMove(mustMoveShip, forcedDir);
@@ -166,7 +172,7 @@ public class MoveRegister {
             if(game.map.at(dest).hasShip() && game.map.at(dest).ship.owner.equals(game.me.id)) {
                 Ship s = game.map.at(dest).ship;
 
-                Logger.info(String.format("Ship %s on forced target needs to move!", s));
+                if(Logger.enabled(Logger.INFO)) Logger.info("Ship %s on forced target needs to move!", s);
                 if(!remainingShips.contains(s)) {
                     Logger.info("Phew - it already is");
                     return;
@@ -177,7 +183,7 @@ public class MoveRegister {
                     Position forcedDest = dest.directionalOffset(d, game.map);
                     if(mustMoveDests.contains(forcedDest) || mustMoveShips.containsKey(forcedDest)) continue;
                     if(occupiedPositions.contains(forcedDest)) continue;
-                    Logger.info(String.format("Direction %s moving to %s is valid", d, forcedDest));
+                    if(Logger.enabled(Logger.INFO)) Logger.info("Direction %s moving to %s is valid", d, forcedDest);
                     validDirections.add(d);
                 }
                 if(validDirections.isEmpty()) {
@@ -199,7 +205,7 @@ public class MoveRegister {
                     }
                     else {
                         Position newDest = dest.directionalOffset(bestDir, game.map);
-                        Logger.info(String.format("Cancelling any order to move to %s!", newDest));
+                        if(Logger.enabled(Logger.INFO)) Logger.info("Cancelling any order to move to %s!", newDest);
                         // There's a bug here - we cancel the order, but we don't put the ship back into the pool of
                         // ships.
                         commandRegister = commandRegister.stream().filter(
@@ -207,7 +213,7 @@ public class MoveRegister {
                         validDirections.add(bestDir);
                     }
                 }
-                Logger.info(String.format("Valid directions %s", validDirections));
+                if(Logger.enabled(Logger.INFO)) Logger.info("Valid directions %s", validDirections);
 
                 mustMoveShips.put(s.position, validDirections);
 
@@ -263,7 +269,9 @@ public class MoveRegister {
                 else {
                     // Not sure whether this ever happens, but this ends up cancelling both orders if two ships are
                     // planning to make the same move, which seems wrong.
-                    Logger.warn(String.format("Removing command to move %s to %s", c.ship.position, c.destination));
+                    if(Logger.enabled(Logger.WARN)) {
+                        Logger.warn("Removing command to move %s to %s", c.ship.position, c.destination);
+                    }
                     badPositions.remove(c.destination);
                     Direction d = Direction.STILL;
                     if(occupiedPositions.contains(c.ship.position)) {
@@ -271,7 +279,7 @@ public class MoveRegister {
                         Logger.warn("Shouldn't stay still - another ship wants this position");
                         d = Navigation.moveAnywhere(game, c.ship, occupiedPositions, false, new RandomTiebreaker());
                     }
-                    Logger.warn(String.format("Alternative direction %s", d));
+                    if(Logger.enabled(Logger.WARN)) Logger.warn("Alternative direction %s", d);
                     newCommands.add(ShipCommand.move(game.map, c.ship, d));
                     getOccupiedPositions().add(c.ship.position.directionalOffset(d, game.map));
                 }
@@ -300,7 +308,7 @@ public class MoveRegister {
 
     public void registerPossibleCollision(Position position) {
         // If a self-collision is registered on a position, we won't change the orders on the collision prevention pass.
-        Logger.warn(String.format("Allowing collisions on %s this turn!", position));
+        if(Logger.enabled(Logger.WARN)) Logger.warn("Allowing collisions on %s this turn!", position);
         collisionsAllowed.add(position);
     }
 
@@ -0,0 +1,117 @@
+package bots.current_bot.utils;
+
+import hlt.GameMap;
+import hlt.Position;
+
+import java.util.Arrays;
+
+/**
+ * The squares within some distance of every square on the map, worked out once per radius and map size, so going
+ * through them allocates nothing. Squares are cell ids (x * width + y).
+ *
+ * Around each square, the i-th square is always at the same offset, in order of distance: the square itself first, then
+ * for each distance, dx from low to high, with +dy before -dy.
+ */
+public final class Neighbourhood {
+    // By radius. Replaced as a whole when the map size changes.
+    private static volatile Neighbourhood[] cache = new Neighbourhood[0];
+
+    private final int width;
+    private final int height;
+    private final int size;
+    // The i-th square around each square, starting at size * cell id.
+    private final int[] cells;
+    // Distance of the i-th square from the centre.
+    private final int[] distances;
+    private final Position[] positions;
+
+    public static Neighbourhood of(GameMap map, int radius) {
+        Neighbourhood[] neighbourhoods = cache;
+        if(radius < neighbourhoods.length && neighbourhoods[radius] != null && neighbourhoods[radius].fits(map)) {
+            return neighbourhoods[radius];
+        }
+        return build(map, radius);
+    }
+
+    private static synchronized Neighbourhood build(GameMap map, int radius) {
+        Neighbourhood[] neighbourhoods = cache;
+        for(Neighbourhood n : neighbourhoods) {
+            if(n != null && !n.fits(map)) {
+                neighbourhoods = new Neighbourhood[0];
+                break;
+            }
+        }
+        if(radius < neighbourhoods.length && neighbourhoods[radius] != null) return neighbourhoods[radius];
+        Neighbourhood[] updated = Arrays.copyOf(neighbourhoods, Math.max(neighbourhoods.length, radius + 1));
+        updated[radius] = new Neighbourhood(map, radius);
+        cache = updated;
+        return updated[radius];
+    }
+
+    private Neighbourhood(GameMap map, int radius) {
+        width = map.width;
+        height = map.height;
+        size = 2 * radius * radius + 2 * radius + 1;
+        int[] dxs = new int[size];
+        int[] dys = new int[size];
+        distances = new int[size];
+        int i = 0;
+        for(int sum=0; sum<=radius; sum++) {
+            for(int dx=-sum; dx<=sum; dx++) {
+                int dy = sum - Math.abs(dx);
+                dxs[i] = dx;
+                dys[i] = dy;
+                distances[i++] = sum;
+                if(dy != 0) {
+                    dxs[i] = dx;
+                    dys[i] = -dy;
+                    distances[i++] = sum;
+                }
+            }
+        }
+
+        cells = new int[size * width * height];
+        positions = new Position[width * height];
+        for(int x=0; x<height; x++) {
+            for(int y=0; y<width; y++) {
+                int centre = x * width + y;
+                positions[centre] = Position.getPosition(x, y);
+                for(i=0; i<size; i++) {
+                    cells[centre * size + i] = map.normaliseX(x + dxs[i]) * width + map.normaliseY(y + dys[i]);
+                }
+            }
+        }
+    }
+
+    private boolean fits(GameMap map) {
+        return map.width == width && map.height == height;
+    }
+
+    /**
+     * How many squares are around each square, including itself. Squares the neighbourhood reaches more than once, on
+     * small maps, count each time.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int distance(int i) {
+        return distances[i];
+    }
+
+    public int cell(int centre, int i) {
+        return cells[centre * size + i];
+    }
+
+    public int cell(Position centre, int i) {
+        return cells[(centre.x * width + centre.y) * size + i];
+    }
+
+    public Position position(Position centre, int i) {
+        return positions[cell(centre, i)];
+    }
+
+    public Position position(int cell) {
+        return positions[cell];
+    }
+}
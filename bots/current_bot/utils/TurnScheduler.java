@@ -0,0 +1,119 @@
+package bots.current_bot.utils;
+
+/**
+ * Keeps track of time through a turn. The turn is split into phases, each with a budget, laid out backwards from the
+ * turn deadline, so a phase is on schedule if there's still time for it and everything after it. Mining scores get
+ * whatever the other phases don't need, and phases which work to a deadline (mining scores and claims) are given one
+ * which leaves later phases their budgets, so time saved earlier in the turn flows on to them.
+ *
+ * When we're behind schedule, optional phases are skipped: hunting first, then exceptional squares, then dropoff
+ * replanning. Running locally on a fixed iteration budget nothing is enforced, so games stay repeatable, but phase
+ * times are still logged.
+ */
+public class TurnScheduler {
+    public enum Phase {
+        MAP_STATS(0),
+        EARLY_MOVES(0),
+        DROPOFF_PLAN(3),
+        MINING_SCORES(0),
+        RETURNING(0),
+        EXCEPTIONAL_SQUARES(2),
+        HUNTING(1),
+        GUARDING(0),
+        MINING_CLAIMS(0),
+        FINISHING(0);
+
+        // Zero for phases which always run. For optional phases, how many LATE_SKIP_TIMEs behind schedule we have to
+        // be to skip them.
+        private final int skipOrder;
+
+        Phase(int skipOrder) {
+            this.skipOrder = skipOrder;
+        }
+    }
+
+    private final boolean enforced;
+    private final long turnStart;
+    private final long turnDeadline;
+    private Phase phase;
+    private long phaseStart;
+
+    public TurnScheduler(boolean enforced) {
+        this.enforced = enforced;
+        turnStart = System.nanoTime();
+        turnDeadline = turnStart + BotConstants.get().TURN_TIME() * 1000000L;
+    }
+
+    public static int budget(Phase phase) {
+        switch (phase) {
+            case MINING_SCORES:
+                int others = 0;
+                for(Phase p : Phase.values()) if(p != Phase.MINING_SCORES) others += budget(p);
+                return BotConstants.get().TURN_TIME() - others;
+            case MINING_CLAIMS:
+                return BotConstants.get().CLAIM_TIME();
+            default:
+                return BotConstants.get().PHASE_TIME();
+        }
+    }
+
+    public void start(Phase next) {
+        endPhase();
+        phase = next;
+        phaseStart = System.nanoTime();
+    }
+
+    /**
+     * Starts an optional phase, unless we're far enough behind schedule to skip it. Skipping counts as running out of
+     * time.
+     */
+    public boolean startOptional(Phase next, MoveRegister moveRegister) {
+        start(next);
+        if(!enforced || next.skipOrder == 0) return true;
+        long behind = phaseStart - (turnDeadline - reservedFrom(next));
+        if(behind <= next.skipOrder * BotConstants.get().LATE_SKIP_TIME() * 1000000L) return true;
+        Logger.warn("%.1fms behind schedule, skipping %s", behind / 1e6, next);
+        moveRegister.outOfTime = true;
+        return false;
+    }
+
+    /**
+     * When the current phase has to be done by (System.nanoTime), leaving the phases after it their budgets. Long.MAX_VALUE
+     * when we aren't enforcing time.
+     */
+    public long deadline() {
+        if(!enforced) return Long.MAX_VALUE;
+        int next = phase.ordinal() + 1;
+        return next < Phase.values().length ? turnDeadline - reservedFrom(Phase.values()[next]) : turnDeadline;
+    }
+
+    public int millisecondsLeft() {
+        return (int) Math.max(0, (deadline() - System.nanoTime()) / 1000000L);
+    }
+
+    /**
+     * Ends the last phase. If we've gone past the turn deadline, signals that we ran out of time.
+     */
+    public void finish(MoveRegister moveRegister) {
+        endPhase();
+        phase = null;
+        long now = System.nanoTime();
+        Logger.logtime("Turn took %.1fms of %dms", (now - turnStart) / 1e6, BotConstants.get().TURN_TIME());
+        if(enforced && now > turnDeadline) {
+            Logger.warn("Past the turn deadline");
+            moveRegister.outOfTime = true;
+        }
+    }
+
+    private void endPhase() {
+        if(phase == null) return;
+        Logger.logtime("%s took %.1fms of %dms", phase, (System.nanoTime() - phaseStart) / 1e6, budget(phase));
+    }
+
+    // Nanoseconds budgeted for this phase and everything after it.
+    private static long reservedFrom(Phase from) {
+        long milliseconds = 0;
+        for(Phase p : Phase.values()) if(p.ordinal() >= from.ordinal()) milliseconds += budget(p);
+        return milliseconds * 1000000L;
+    }
+}
@@ -1,14 +1,25 @@
 package hlt;
 
 public class Command {
-    public final String command;
+    // Kept compact, and only turned into the text the engine wants by CommandEncoder at the end of the turn.
+    static final byte SPAWN = 'g';
+    static final byte CONSTRUCT = 'c';
+    static final byte MOVE = 'm';
+
+    final byte type;
+    // -1 for spawns, which aren't given to a ship.
+    final int shipId;
+    // The direction's char for moves, 0 otherwise.
+    final byte direction;
 
     public static Command spawnShip() {
-        return new Command("g");
+        return new Command(SPAWN, -1, (byte) 0);
     }
 
-    protected Command(final String command) {
-        this.command = command;
+    protected Command(final byte type, final int shipId, final byte direction) {
+        this.type = type;
+        this.shipId = shipId;
+        this.direction = direction;
     }
 
     @Override
@@ -18,12 +29,26 @@ public class Command {
 
         Command command1 = (Command) o;
 
-        return command.equals(command1.command);
+        return type == command1.type && shipId == command1.shipId && direction == command1.direction;
     }
 
     @Override
     public int hashCode() {
-        return command.hashCode();
+        int result = type;
+        result = 31 * result + shipId;
+        result = 31 * result + direction;
+        return result;
     }
-}
 
+    @Override
+    public String toString() {
+        switch (type) {
+            case SPAWN:
+                return "g";
+            case CONSTRUCT:
+                return "c " + shipId;
+            default:
+                return "m " + shipId + ' ' + (char) direction;
+        }
+    }
+}
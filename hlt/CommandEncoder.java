@@ -0,0 +1,47 @@
+package hlt;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+
+// Writes a turn's commands into one buffer, kept between turns, and sends them to the engine with a single write.
+final class CommandEncoder {
+    private byte[] buffer = new byte[1 << 12];
+    private int length;
+
+    void write(final List<? extends Command> commands, final PrintStream out) {
+        length = 0;
+        for (final Command command : commands) {
+            // Longest is "m <id> <direction> ".
+            ensureRoom(16);
+            buffer[length++] = command.type;
+            if (command.type != Command.SPAWN) {
+                buffer[length++] = ' ';
+                writeInt(command.shipId);
+            }
+            if (command.type == Command.MOVE) {
+                buffer[length++] = ' ';
+                buffer[length++] = command.direction;
+            }
+            buffer[length++] = ' ';
+        }
+        ensureRoom(1);
+        buffer[length++] = '\n';
+
+        out.write(buffer, 0, length);
+        out.flush();
+    }
+
+    private void writeInt(final int value) {
+        if (value >= 10) {
+            writeInt(value / 10);
+        }
+        buffer[length++] = (byte) ('0' + value % 10);
+    }
+
+    private void ensureRoom(final int bytes) {
+        if (length + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+        }
+    }
+}
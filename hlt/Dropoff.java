@@ -6,7 +6,7 @@ public class Dropoff extends Entity {
     }
 
     static Dropoff _generate(final PlayerId playerId) {
-        final Input input = Input.readInput();
+        final Input input = Input.stdin();
 
         final EntityId dropoffId = new EntityId(input.getInt());
         final int x = input.getInt();
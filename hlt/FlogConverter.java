@@ -0,0 +1,64 @@
+package hlt;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+// Turns the binary files Flogger writes into the JSON Fluorine reads, next to them with a .flog extension. Run after
+// the game, e.g. java hlt.FlogConverter flogs/*.flogbin
+public class FlogConverter {
+    public static void main(final String[] args) throws IOException {
+        for (final String filename : args) {
+            final String output = filename.replaceAll("\\.flogbin$", "") + ".flog";
+            convert(filename, output);
+        }
+    }
+
+    static void convert(final String input, final String output) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(Paths.get(input)));
+        if (buffer.remaining() < 8 || buffer.getInt() != Flogger.MAGIC || buffer.getInt() != Flogger.VERSION) {
+            throw new IllegalArgumentException(input + " isn't a flog file we can read");
+        }
+
+        final Map<Integer, String> strings = new HashMap<>();
+        try (final PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8))) {
+            writer.print("[\n");
+            while (buffer.hasRemaining()) {
+                final byte type = buffer.get();
+                if (type == Flogger.STRING) {
+                    final int id = buffer.getInt();
+                    final byte[] bytes = new byte[buffer.getInt()];
+                    buffer.get(bytes);
+                    strings.put(id, new String(bytes, StandardCharsets.UTF_8));
+                } else if (type == Flogger.ANNOTATION) {
+                    final int time = buffer.getInt();
+                    final int x = buffer.getShort();
+                    final int y = buffer.getShort();
+                    final String format = strings.get(buffer.getInt());
+                    final int colorId = buffer.getInt();
+                    final int arg0 = buffer.getInt();
+                    final int arg1 = buffer.getInt();
+
+                    final String message = escape(String.format(format, arg0, arg1));
+                    if (colorId < 0) {
+                        writer.printf("{\"t\": %d, \"x\": %d, \"y\": %d, \"msg\": \"%s\" },\n", time, x, y, message);
+                    } else {
+                        writer.printf("{\"t\": %d, \"x\": %d, \"y\": %d, \"msg\": \"%s\", \"color\":\"%s\" },\n",
+                                time, x, y, message, escape(strings.get(colorId)));
+                    }
+                } else {
+                    throw new IllegalArgumentException(String.format("Unknown record type %d in %s", type, input));
+                }
+            }
+        }
+    }
+
+    private static String escape(final String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -1,86 +1,116 @@
 package hlt;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
+// Annotations for Fluorine, written as fixed size binary records so logging one costs next to nothing. Messages and
+// colours are interned: the first time we see one, we write it out with its id, and records refer to it by id after
+// that. A message can be a format with up to two %d arguments, which are kept in the record, so messages about
+// different ships or squares still share an id. FlogConverter turns the file into the JSON Fluorine reads.
 public class Flogger {
-    private final FileWriter file;
+    static final int MAGIC = 0x464c4f47;
+    static final int VERSION = 2;
+    static final byte STRING = 0;
+    static final byte ANNOTATION = 1;
 
-    private static Flogger INSTANCE;
-    private static ArrayList<String> LOG_BUFFER = new ArrayList<>();
+    private static final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+    // Longer messages are cut short, so a string record always fits in the buffer.
+    static final int MAX_STRING_BYTES = 1 << 12;
+    private static final Map<String, Integer> ids = new HashMap<>();
+    private static FileChannel channel;
     public static boolean shouldLog = false;
 
     static {
-        Runtime.getRuntime().addShutdownHook(new AtExit());
+        Runtime.getRuntime().addShutdownHook(new Thread(Flogger::close));
     }
 
-    private static class AtExit extends Thread {
-        @Override
-        public void run() {
-            if (INSTANCE != null) {
-                return;
-            }
-
-            final long now_in_nanos = System.nanoTime();
-            final String filename = "bot-unknown-" + now_in_nanos + ".log";
-            try (final FileWriter writer = new FileWriter(filename)) {
-                for (final String message : LOG_BUFFER) {
-                    writer.append(message).append('\n');
-                }
-            } catch (final IOException e) {
-                // Nothing much we can do here.
-            }
-        }
-    }
-
-    private Flogger(final FileWriter f) {
-        file = f;
-    }
-
-    static void open(final int botId) {
+    static synchronized void open(final int botId) {
         shouldLog = true;
-        if (INSTANCE != null) {
+        if (channel != null) {
             throw new IllegalStateException();
         }
 
-        String filename = "bot-" + botId + System.currentTimeMillis() +  ".flog";
+        String filename = "bot-" + botId + System.currentTimeMillis() +  ".flogbin";
         filename = "flogs/" + filename;
-        final FileWriter writer;
         try {
-            writer = new FileWriter(filename);
+            channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
         } catch (final IOException e) {
             throw new IllegalStateException(e);
         }
-        INSTANCE = new Flogger(writer);
+        buffer.putInt(MAGIC).putInt(VERSION);
+    }
 
-        LOG_BUFFER.add(0, "[");
+    public static void log(int time, Position p, String message, Optional<String> color) {
+        if(!shouldLog) return;
+        // Not a format, so any % in it is just a %.
+        log(time, p, message.indexOf('%') < 0 ? message : message.replace("%", "%%"), 0, 0, color);
+    }
+
+    public static synchronized void log(int time, Position p, String message, int arg0, int arg1, Optional<String> color) {
+        if(!shouldLog) return;
+        final int messageId = intern(message);
+        final int colorId = color.isPresent() ? intern(color.get()) : -1;
+        room(25);
+        buffer.put(ANNOTATION).putInt(time).putShort((short) p.x).putShort((short) p.y)
+                .putInt(messageId).putInt(colorId).putInt(arg0).putInt(arg1);
+    }
+
+    // Writes out everything logged so far.
+    public static synchronized void flush() {
+        if (channel == null) {
+            return;
+        }
+        buffer.flip();
         try {
-            for (final String message : LOG_BUFFER) {
-                writer.append(message).append('\n');
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
             }
         } catch (final IOException e) {
             throw new IllegalStateException(e);
         }
-        LOG_BUFFER.clear();
+        buffer.clear();
     }
 
-    public static void log(int time, Position p, String message, Optional<String> color) {
-        if(!shouldLog) return;
-        String log = String.format("{\"t\": %d, \"x\": %d, \"y\": %d, \"msg\": \"%s\" },", time, p.x, p.y, message);
-        if(color.isPresent()) {
-            log = String.format("{\"t\": %d, \"x\": %d, \"y\": %d, \"msg\": \"%s\", \"color\":\"%s\" },", time, p.x, p.y, message, color.get());
+    private static int intern(final String s) {
+        Integer id = ids.get(s);
+        if (id == null) {
+            id = ids.size();
+            ids.put(s, id);
+            final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(bytes.length, MAX_STRING_BYTES);
+            // Don't cut a character in half.
+            while (length < bytes.length && (bytes[length] & 0xc0) == 0x80) {
+                --length;
+            }
+            room(9 + length);
+            buffer.put(STRING).putInt(id).putInt(length).put(bytes, 0, length);
         }
-        if (INSTANCE == null) {
-            LOG_BUFFER.add(log);
-            return;
+        return id;
+    }
+
+    private static void room(final int bytes) {
+        if (buffer.remaining() < bytes) {
+            flush();
         }
+    }
 
+    private static synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        flush();
         try {
-            INSTANCE.file.append(log).append('\n').flush();
+            channel.close();
         } catch (final IOException e) {
-            e.printStackTrace();
+            // Nothing much we can do here.
         }
     }
 }
@@ -9,11 +9,12 @@ public class Game {
     public final Player me;
     public final GameMap map;
     public final boolean log;
+    private final CommandEncoder commandEncoder = new CommandEncoder();
 
     public Game(boolean local, boolean log) {
         Constants.populateConstants(Input.readLine());
 
-        final Input input = Input.readInput();
+        final Input input = Input.stdin();
         final int numPlayers = input.getInt();
         myId = new PlayerId(input.getInt());
         this.log = log;
@@ -35,12 +36,11 @@ public class Game {
     }
 
     public void updateFrame() {
-        turnNumber = Input.readInput().getInt();
+        final Input input = Input.stdin();
+        turnNumber = input.getInt();
         if(log) Log.log("=============== TURN " + turnNumber + " ================");
 
         for (int i = 0; i < players.size(); ++i) {
-            final Input input = Input.readInput();
-
             final PlayerId currentPlayerId = new PlayerId(input.getInt());
             final int numShips = input.getInt();
             final int numDropoffs = input.getInt();
@@ -56,20 +56,19 @@ public class Game {
                 map.at(ship).markUnsafe(ship);
             }
 
-            map.at(player.shipyard).structure = player.shipyard;
+            map.placeStructure(player.shipyard);
 
             for (final Dropoff dropoff : player.dropoffs.values()) {
-                map.at(dropoff).structure = dropoff;
+                map.placeStructure(dropoff);
             }
         }
     }
 
     public void endTurn(final ArrayList<? extends Command> commands) {
-        for (final Command command : commands) {
-            System.out.print(command.command);
-            System.out.print(' ');
-        }
-        System.out.println();
+        commandEncoder.write(commands, System.out);
+        // The engine has our commands, so it isn't waiting on us while the logs catch up.
+        Log.flush();
+        Flogger.flush();
     }
 
     public int turnsRemaining() {
@@ -1,12 +1,30 @@
 package hlt;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class GameMap {
     public final int width;
     public final int height;
     public final MapCell[][] cells;
 
+    // What's in cells, laid out flat by cell id (x * width + y) for loops over the whole map. -1 where there's no ship
+    // or structure. These are kept in step with cells, which is why ships and structures are placed through the map.
+    public final int[] halite;
+    public final short[] shipOwner;
+    public final int[] shipHalite;
+    public final byte[] structureOwner;
+
+    // Cell ids for this map size, worked out once: the position of every cell, the cell one step away in each direction
+    // (five to a cell, by Direction ordinal, STILL being the cell itself), and the row and column of every cell.
+    private final Position[] positions;
+    private final int[] adjacent;
+    private final int[] cellX;
+    private final int[] cellY;
+    // Wrapped distance along each axis, indexed by the difference in x (or y) plus height - 1 (or width - 1).
+    private final int[] xDistance;
+    private final int[] yDistance;
+
     public GameMap(final int width, final int height) {
         this.width = width;
         this.height = height;
@@ -15,47 +33,104 @@ public class GameMap {
         for (int x = 0; x < height; ++x) {
             cells[x] = new MapCell[width];
         }
+        halite = new int[width * height];
+        shipOwner = new short[width * height];
+        shipHalite = new int[width * height];
+        structureOwner = new byte[width * height];
+        Arrays.fill(shipOwner, (short) -1);
+        Arrays.fill(structureOwner, (byte) -1);
+
+        positions = new Position[width * height];
+        cellX = new int[width * height];
+        cellY = new int[width * height];
+        for (int x = 0; x < height; ++x) {
+            for (int y = 0; y < width; ++y) {
+                final int cell = cell(x, y);
+                positions[cell] = Position.getPosition(x, y);
+                cellX[cell] = x;
+                cellY[cell] = y;
+            }
+        }
+        adjacent = new int[width * height * 5];
+        for (int cell = 0; cell < width * height; ++cell) {
+            final int x = cellX[cell];
+            final int y = cellY[cell];
+            adjacent[cell * 5 + Direction.NORTH.ordinal()] = cell(x, normaliseY(y - 1));
+            adjacent[cell * 5 + Direction.EAST.ordinal()] = cell(normaliseX(x + 1), y);
+            adjacent[cell * 5 + Direction.SOUTH.ordinal()] = cell(x, normaliseY(y + 1));
+            adjacent[cell * 5 + Direction.WEST.ordinal()] = cell(normaliseX(x - 1), y);
+            adjacent[cell * 5 + Direction.STILL.ordinal()] = cell;
+        }
+        xDistance = new int[2 * height - 1];
+        for (int dx = 1 - height; dx < height; ++dx) {
+            xDistance[dx + height - 1] = Math.min(Math.abs(dx), width - Math.abs(dx));
+        }
+        yDistance = new int[2 * width - 1];
+        for (int dy = 1 - width; dy < width; ++dy) {
+            yDistance[dy + width - 1] = Math.min(Math.abs(dy), height - Math.abs(dy));
+        }
     }
 
-    public MapCell at(final Position position) {
-        return cells[position.x][position.y];
+    public int cell(final Position position) {
+        return position.x * width + position.y;
     }
 
-    public MapCell at(final Entity entity) {
-        return at(entity.position);
+    public int cell(final int x, final int y) {
+        return x * width + y;
     }
 
-    public int calculateDistance(final Position source, final Position target) {
+    public Position position(final int cell) {
+        return positions[cell];
+    }
 
-        final int dx = Math.abs(source.x - target.x);
-        final int dy = Math.abs(source.y - target.y);
+    public int offset(final int cell, final Direction direction) {
+        return adjacent[cell * 5 + direction.ordinal()];
+    }
 
-        final int toroidal_dx = Math.min(dx, width - dx);
-        final int toroidal_dy = Math.min(dy, height - dy);
+    public int distance(final int source, final int target) {
+        return xDistance[cellX[source] - cellX[target] + height - 1] + yDistance[cellY[source] - cellY[target] + width - 1];
+    }
 
-        return toroidal_dx + toroidal_dy;
+    public boolean hasShip(final int cell) {
+        return shipOwner[cell] >= 0;
     }
 
-    public int calculateDistance(int x_1, int y_1, int x_2, int y_2) {
+    public boolean hasEnemyShip(final int cell, final PlayerId player) {
+        return shipOwner[cell] >= 0 && shipOwner[cell] != player.id;
+    }
 
-        final int dx = Math.abs(x_1 - x_2);
-        final int dy = Math.abs(y_1 - y_2);
+    public boolean hasStructure(final int cell) {
+        return structureOwner[cell] >= 0;
+    }
 
-        final int toroidal_dx = Math.min(dx, width - dx);
-        final int toroidal_dy = Math.min(dy, height - dy);
+    void placeShip(final int cell, final Ship ship) {
+        shipOwner[cell] = ship == null ? -1 : (short) ship.owner.id;
+        shipHalite[cell] = ship == null ? 0 : ship.halite;
+    }
 
-        return toroidal_dx + toroidal_dy;
+    void placeStructure(final Entity structure) {
+        at(structure).structure = structure;
+        structureOwner[cell(structure.position)] = (byte) structure.owner.id;
     }
 
+    public MapCell at(final Position position) {
+        return cells[position.x][position.y];
+    }
 
-    public int calculateDistance(int x, int y, Position p) {
-        final int dx = Math.abs(x - p.x);
-        final int dy = Math.abs(y - p.y);
+    public MapCell at(final Entity entity) {
+        return at(entity.position);
+    }
+
+    public int calculateDistance(final Position source, final Position target) {
+        return calculateDistance(source.x, source.y, target.x, target.y);
+    }
 
-        final int toroidal_dx = Math.min(dx, width - dx);
-        final int toroidal_dy = Math.min(dy, height - dy);
+    public int calculateDistance(int x_1, int y_1, int x_2, int y_2) {
+        return xDistance[x_1 - x_2 + height - 1] + yDistance[y_1 - y_2 + width - 1];
+    }
 
-        return toroidal_dx + toroidal_dy;
+    public int calculateDistance(int x, int y, Position p) {
+        return calculateDistance(x, y, p.x, p.y);
     }
 
     public ArrayList<Direction> getUnsafeMoves(final Position source, final Position destination) {
@@ -105,31 +180,33 @@ public class GameMap {
                 cells[x][y].ship = null;
             }
         }
+        Arrays.fill(shipOwner, (short) -1);
+        Arrays.fill(shipHalite, 0);
 
-        final int updateCount = Input.readInput().getInt();
+        final Input input = Input.stdin();
+        final int updateCount = input.getInt();
 
         for (int i = 0; i < updateCount; ++i) {
-            final Input input = Input.readInput();
             final int x = input.getInt();
             final int y = input.getInt();
 
             cells[x][y].halite = input.getInt();
+            halite[cell(x, y)] = cells[x][y].halite;
         }
     }
 
     static GameMap _generate() {
-        final Input mapInput = Input.readInput();
-        final int width = mapInput.getInt();
-        final int height = mapInput.getInt();
+        final Input input = Input.stdin();
+        final int width = input.getInt();
+        final int height = input.getInt();
 
         final GameMap map = new GameMap(width, height);
 
         for (int y = 0; y < height; ++y) {
-            final Input rowInput = Input.readInput();
-
             for (int x = 0; x < width; ++x) {
-                final int halite = rowInput.getInt();
-                map.cells[x][y] = new MapCell(Position.getPosition(x, y), halite);
+                final int halite = input.getInt();
+                map.cells[x][y] = new MapCell(map, Position.getPosition(x, y), halite);
+                map.halite[map.cell(x, y)] = halite;
             }
         }
 
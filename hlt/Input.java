@@ -1,38 +1,84 @@
 package hlt;
 
+import java.io.InputStream;
+
+// Reads what the engine sends us straight out of a buffer. After the constants line, everything is whitespace
+// separated ints, and the protocol fixes how many come and when, so we read them as a stream of numbers and don't
+// split it into lines or strings.
 public class Input {
-    private final String[] input;
-    private int current;
+    private static Input stdin;
+
+    private final InputStream stream;
+    private final byte[] buffer = new byte[1 << 16];
+    private int position = 0;
+    private int limit = 0;
 
-    public Input(final String line) {
-        input = line.split(" ");
+    public Input(final InputStream stream) {
+        this.stream = stream;
     }
 
-    public int getInt() {
-        return Integer.parseInt(input[current++]);
+    public static Input stdin() {
+        if (stdin == null) {
+            stdin = new Input(System.in);
+        }
+        return stdin;
     }
 
-    public static Input readInput() {
-        return new Input(readLine());
+    public int getInt() {
+        int b = read();
+        while (b == ' ' || b == '\n' || b == '\r') {
+            b = read();
+        }
+        final boolean negative = b == '-';
+        if (negative) {
+            b = read();
+        }
+        if (b < '0' || b > '9') {
+            throw new IllegalStateException("Expected a number from the engine, got '" + (char) b + "'");
+        }
+
+        int value = 0;
+        // Reading the byte after the number is fine: the engine always ends a message with a newline.
+        for (; b >= '0' && b <= '9'; b = read()) {
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
     }
 
     public static String readLine() {
-        try {
-            final StringBuilder builder = new StringBuilder();
-
-            int buffer;
-            for (; (buffer = System.in.read()) >= 0;) {
-                if (buffer == '\n') {
-                    break;
-                }
-                if (buffer == '\r') {
-                    // Ignore carriage return if on windows for manual testing.
-                    continue;
-                }
-                builder.append((char)buffer);
+        return stdin().getLine();
+    }
+
+    public String getLine() {
+        final StringBuilder builder = new StringBuilder();
+        for (int b = read(); b != '\n'; b = read()) {
+            if (b == '\r') {
+                // Ignore carriage return if on windows for manual testing.
+                continue;
             }
+            builder.append((char) b);
+        }
+        return builder.toString();
+    }
 
-            return builder.toString();
+    private int read() {
+        if (position == limit) {
+            fill();
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    private void fill() {
+        try {
+            // Only called once we've used up everything buffered, so this blocks until the engine sends more, and we
+            // never wait on a message that hasn't been sent.
+            final int read = stream.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                // The engine has closed stdin: the game's over.
+                System.exit(0);
+            }
+            position = 0;
+            limit = read;
         } catch (final Exception e) {
             System.exit(0);
             throw new IllegalStateException(e);
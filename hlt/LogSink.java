@@ -0,0 +1,210 @@
+package hlt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Where Log sends its lines. Logging just puts the line in a ring buffer, and a background thread writes whatever has
+// built up to the file in batches, so the bot never waits on the disk while it's working out its moves. If the buffer
+// fills up, lines are dropped and counted rather than making the bot wait.
+//
+// Lines logged before the file is opened wait in the buffer. At shutdown everything left is written out; if the file
+// was never opened, it goes to a bot-unknown file instead. The writer thread is only started by open, so with logging
+// off there's no thread at all.
+final class LogSink {
+    private static final int CAPACITY = 1 << 16;
+    private static final int BATCH_BYTES = 1 << 18;
+    // The writer sleeps until a flush or shutdown wakes it, or until this many lines are waiting, so it writes in
+    // batches and doesn't take time from the bot while it's working out its moves.
+    private static final int WAKE_LINES = CAPACITY / 4;
+
+    private final AtomicReferenceArray<String> slots = new AtomicReferenceArray<>(CAPACITY);
+    // Lines are numbered in the order they're logged. tail is the next number to hand out, head the next to write, and
+    // written how many have reached the file.
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head = 0;
+    private volatile long written = 0;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private FileChannel channel;
+    private Thread writer;
+    private volatile boolean closing = false;
+    // Set by the writer just before it sleeps, so the bot only pays for waking it when it's asleep.
+    private volatile boolean idle = false;
+    // Why the writer stopped, if writing to the file failed. Thrown from the next flush.
+    private volatile IOException failure;
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+
+    LogSink() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    boolean isOpen() {
+        return channel != null;
+    }
+
+    void log(final String message) {
+        while (true) {
+            final long t = tail.get();
+            if (t - head >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                slots.lazySet((int) (t & (CAPACITY - 1)), message);
+                if (idle && t + 1 - head >= WAKE_LINES) {
+                    idle = false;
+                    LockSupport.unpark(writer);
+                }
+                return;
+            }
+        }
+    }
+
+    // Opens the file, writes anything logged so far, and starts writing in the background.
+    synchronized void open(final String filename) {
+        try {
+            channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+        writer = new Thread(this::run, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Waits until everything logged so far is in the file. Called at the end of each turn, once our commands are sent.
+    // Throws if the writer couldn't write to the file.
+    void flush() {
+        if (writer == null) {
+            return;
+        }
+        final long target = tail.get();
+        LockSupport.unpark(writer);
+        synchronized (this) {
+            while (written < target && writer.isAlive()) {
+                try {
+                    wait(1);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                final boolean stopping = closing;
+                if (writeAvailable() == 0) {
+                    if (stopping) {
+                        return;
+                    }
+                    // A line logged after we say we're idle sees it, so once we've found nothing waiting, any line we
+                    // miss will wake us up. If a line is numbered but not in its slot yet, it's about to be.
+                    idle = true;
+                    if (tail.get() == head) {
+                        LockSupport.park(this);
+                    } else {
+                        Thread.yield();
+                    }
+                    idle = false;
+                }
+            }
+        } catch (final IOException e) {
+            synchronized (this) {
+                failure = e;
+                notifyAll();
+            }
+        }
+    }
+
+    // Writes out the lines that are ready, returning how many there were. A line whose number has been handed out but
+    // which isn't in its slot yet stops the batch; it'll be picked up next time.
+    private int writeAvailable() throws IOException {
+        long h = head;
+        final long t = tail.get();
+        int count = 0;
+        while (h < t) {
+            final int slot = (int) (h & (CAPACITY - 1));
+            final String message = slots.get(slot);
+            if (message == null) {
+                break;
+            }
+            append(message);
+            slots.lazySet(slot, null);
+            head = ++h;
+            count++;
+        }
+        if (count > 0) {
+            writeBatch();
+            synchronized (this) {
+                written = h;
+                notifyAll();
+            }
+        }
+        return count;
+    }
+
+    private void append(final String message) throws IOException {
+        final byte[] bytes = (message + '\n').getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > batch.remaining()) {
+            writeBatch();
+        }
+        if (bytes.length > batch.remaining()) {
+            write(ByteBuffer.wrap(bytes));
+        } else {
+            batch.put(bytes);
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        batch.flip();
+        write(batch);
+        batch.clear();
+    }
+
+    private void write(final ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private void close() {
+        synchronized (this) {
+            if (channel == null) {
+                if (tail.get() == 0) {
+                    return;
+                }
+                open("bot-unknown-" + System.nanoTime() + ".log");
+            }
+        }
+        closing = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (dropped.get() > 0 && failure == null) {
+                append("Dropped " + dropped.get() + " log lines because the buffer was full");
+                writeBatch();
+            }
+            channel.close();
+        } catch (final IOException e) {
+            // Nothing much we can do here.
+        }
+    }
+}
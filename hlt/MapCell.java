@@ -1,12 +1,18 @@
 package hlt;
 
+/**
+ * One square of the map. The map also keeps all of this in flat arrays, so change ships through markUnsafe, and leave
+ * halite and structures to the map.
+ */
 public class MapCell {
     public final Position position;
     public int halite;
     public Ship ship;
     public Entity structure;
+    private final GameMap map;
 
-    public MapCell(final Position position, final int halite) {
+    MapCell(final GameMap map, final Position position, final int halite) {
+        this.map = map;
         this.position = position;
         this.halite = halite;
     }
@@ -25,5 +31,6 @@ public class MapCell {
 
     public void markUnsafe(final Ship ship) {
         this.ship = ship;
+        map.placeShip(map.cell(position), ship);
     }
 }
@@ -32,7 +32,7 @@ public class Player {
     }
 
     static Player _generate() {
-        final Input input = Input.readInput();
+        final Input input = Input.stdin();
 
         final PlayerId playerId = new PlayerId(input.getInt());
         final int shipyard_x = input.getInt();
@@ -7,22 +7,17 @@ public class Position {
     public final int y;
     public static int MAX_DIM = 64;
 
-    private static Position[][] positions;
-    private static boolean positionsInitialised = false;
+    private static final Position[][] positions = new Position[MAX_DIM][MAX_DIM];
 
-    private static void initialisePositions() {
-        if(positionsInitialised) return;
-        positions = new Position[MAX_DIM][MAX_DIM];
+    static {
         for(int m_x=0; m_x<MAX_DIM; m_x++){
             for(int m_y=0; m_y<MAX_DIM; m_y++){
                 positions[m_x][m_y] = new Position(m_x, m_y);
             }
         }
-        positionsInitialised = true;
     }
 
     public static Position getPosition(int x, int y) {
-        initialisePositions();
         return positions[x][y];
     }
 
@@ -48,35 +43,7 @@ public class Position {
     }
 
     public Position directionalOffset(final Direction d, GameMap map) {
-        final int dx;
-        final int dy;
-
-        switch (d) {
-            case NORTH:
-                dx = 0;
-                dy = -1;
-                break;
-            case SOUTH:
-                dx = 0;
-                dy = 1;
-                break;
-            case EAST:
-                dx = 1;
-                dy = 0;
-                break;
-            case WEST:
-                dx = -1;
-                dy = 0;
-                break;
-            case STILL:
-                dx = 0;
-                dy = 0;
-                break;
-            default:
-                throw new IllegalStateException("Unknown direction " + d);
-        }
-
-        return getPosition(map.normaliseX(x + dx), map.normaliseY(y + dy));
+        return map.position(map.offset(map.cell(this), d));
     }
 
 
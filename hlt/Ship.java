@@ -13,7 +13,7 @@ public class Ship extends Entity {
     }
 
     static Ship _generate(final PlayerId playerId) {
-        final Input input = Input.readInput();
+        final Input input = Input.stdin();
 
         final EntityId shipId = new EntityId(input.getInt());
         final int x = input.getInt();
@@ -6,20 +6,20 @@ public class ShipCommand extends Command{
     public final Position destination;
     private final boolean canCollideDestinations;
 
-    private ShipCommand(final String command, final Position destination, final Ship ship, boolean canCollideDestinations) {
-        super(command);
+    private ShipCommand(final byte type, final byte direction, final Position destination, final Ship ship, boolean canCollideDestinations) {
+        super(type, ship.id.id, direction);
         this.destination = destination;
         this.ship = ship;
         this.canCollideDestinations = canCollideDestinations;
     }
 
     public static ShipCommand transformShipIntoDropoffSite(final Ship ship) {
-            return new ShipCommand("c " + ship.id, ship.position, ship, true);
+            return new ShipCommand(CONSTRUCT, (byte) 0, ship.position, ship, true);
     }
 
     public static ShipCommand move(GameMap map, final Ship ship, final Direction direction) {
         Position new_position = ship.position.directionalOffset(direction, map);
-        return new ShipCommand("m " + ship.id + ' ' + direction.charValue, new_position, ship, false);
+        return new ShipCommand(MOVE, (byte) direction.charValue, new_position, ship, false);
     }
 
     public boolean canCollideDestinations() {